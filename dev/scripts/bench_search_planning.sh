@@ -0,0 +1,107 @@
+#!/usr/bin/env bash
+#
+# Compares per-request cost of the client and document search statements when the search values are
+# inlined into the SQL text (every request is parsed and planned from scratch) against bind parameters
+# on a server-side prepared statement (parsed once per connection, plan reused by Postgres).
+#
+# pgbench -M simple sends the statement text with the values substituted, which is what DSL.inline produced.
+# pgbench -M prepared sends Parse once and then Bind/Execute, which is what pgjdbc does for DSL.val binds
+# once prepareThreshold is reached.
+#
+# Example:
+#     PGHOST=localhost PGUSER=user PGPASSWORD=password PGDATABASE=wealthsearch \
+#         dev/scripts/bench_search_planning.sh --seed 50000 --duration 20
+#
+# --seed inserts synthetic clients and documents and should only be used against a local database.
+
+set -euo pipefail
+
+DURATION=15
+CLIENTS=4
+SEED=0
+
+while [[ $# -gt 0 ]]; do
+    case "$1" in
+        --duration) DURATION="$2"; shift 2 ;;
+        --clients) CLIENTS="$2"; shift 2 ;;
+        --seed) SEED="$2"; shift 2 ;;
+        *) echo "Unknown argument: $1" >&2; exit 1 ;;
+    esac
+done
+
+WORK_DIR="$(mktemp -d)"
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+if [[ "$SEED" -gt 0 ]]; then
+    echo "Seeding $SEED clients with two documents each"
+    psql -q -v ON_ERROR_STOP=1 <<SQL
+WITH words AS (
+    SELECT array['nevis', 'wealth', 'morgan', 'capital', 'partners', 'global', 'trust', 'asset', 'bridge',
+                 'summit', 'harbor', 'crest', 'north', 'stone', 'river', 'oak'] AS w
+), inserted AS (
+    INSERT INTO clients (id, first_name, last_name, email, country_of_residence, created_at, domain_name)
+    SELECT gen_random_uuid(), 'Bench', 'Client' || i,
+           'bench' || i || '.' || substr(md5(random()::text), 1, 6) || '@' || d || '.com', 'US', now(), d
+    FROM generate_series(1, $SEED) AS i,
+         LATERAL (SELECT w[1 + (i * 7) % 16] || w[1 + (i * 13 / 16) % 16] || (i % 97) AS d FROM words) AS domains
+    RETURNING id, domain_name
+), domains AS (
+    INSERT INTO client_domains (domain_name, client_count)
+    SELECT domain_name, count(*) FROM inserted GROUP BY domain_name
+    ON CONFLICT (domain_name) DO UPDATE SET client_count = client_domains.client_count + excluded.client_count
+)
+INSERT INTO documents (id, client_id, title, content, created_at)
+SELECT gen_random_uuid(), id, 'Portfolio review ' || n,
+       'Wealth management notes about asset allocation, residence verification and tax planning ' || n,
+       now() - (n || ' minutes')::interval
+FROM inserted, generate_series(1, 2) AS n;
+ANALYZE clients;
+ANALYZE client_domains;
+ANALYZE documents;
+SQL
+fi
+
+cat > "$WORK_DIR/clients.sql" <<'SQL'
+\set word random(1, 6)
+SELECT c.*, m.score, count(*) OVER () AS total_count
+FROM clients c
+JOIN (SELECT domain_name,
+             greatest(similarity(domain_name, (array['neviswealth', 'morgan', 'capitl', 'globaltrust', 'oak', 'harborcrest'])[:word]),
+                      word_similarity((array['neviswealth', 'morgan', 'capitl', 'globaltrust', 'oak', 'harborcrest'])[:word], domain_name)) AS score
+      FROM client_domains
+      WHERE domain_name % (array['neviswealth', 'morgan', 'capitl', 'globaltrust', 'oak', 'harborcrest'])[:word]
+         OR (array['neviswealth', 'morgan', 'capitl', 'globaltrust', 'oak', 'harborcrest'])[:word] <% domain_name) m
+  ON c.domain_name = m.domain_name
+ORDER BY m.score DESC, c.id ASC
+LIMIT 20 OFFSET 0;
+SQL
+
+cat > "$WORK_DIR/documents.sql" <<'SQL'
+\set term random(1, 4)
+SELECT d.*, ts_rank_cd('{0.1, 0.2, 0.4, 1.0}', search_tsv, websearch_to_tsquery('english', (array['wealth OR asset', 'residence verification', 'tax OR planning', 'portfolio'])[:term]), 0) AS rank,
+       count(*) OVER () AS total_count
+FROM documents d
+WHERE search_tsv @@ websearch_to_tsquery('english', (array['wealth OR asset', 'residence verification', 'tax OR planning', 'portfolio'])[:term])
+ORDER BY rank DESC, d.created_at DESC, d.id DESC
+LIMIT 20 OFFSET 0;
+SQL
+
+run_bench() {
+    local name="$1" mode="$2"
+    local latency
+    latency=$(pgbench -n -M "$mode" -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -f "$WORK_DIR/$name.sql" 2>/dev/null \
+                  | awk -F' = ' '/latency average/ {print $2}')
+    printf '%-10s %-9s latency %s\n' "$name" "$mode" "$latency"
+}
+
+planning_time() {
+    local name="$1" sql
+    sql=$(sed -e '1d' -e 's/:word/1/g; s/:term/1/g' "$WORK_DIR/$name.sql")
+    psql -qAt -c "EXPLAIN (ANALYZE, SUMMARY) ${sql%;}" | awk -v n="$name" '/Planning Time/ {print n, "single plan:", $3, $4}'
+}
+
+for query in clients documents; do
+    planning_time "$query"
+    run_bench "$query" simple
+    run_bench "$query" prepared
+done
@@ -2,6 +2,7 @@ package com.wealthsearch.api;
 
 import com.wealthsearch.model.entity.search.ClientSearchHit;
 import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
 import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
 
@@ -9,5 +10,6 @@ public interface SearchService {
 
     SearchResult<ClientSearchHit> searchClientsPerCompanyName(String query, PaginationParams paginationParams);
 
-    SearchResult<DocumentSearchHit> searchDocumentsBySimilarTerms(String query, PaginationParams paginationParams);
+    SearchResult<DocumentSearchHit> searchDocumentsBySimilarTerms(String query, DocumentSearchOptions options,
+                                                                  PaginationParams paginationParams);
 }
@@ -1,8 +1,15 @@
 package com.wealthsearch.api.ollama;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public interface SemanticSearchQueryExpander {
 
     Set<String> expandQueryWithSynonyms(String query);
+
+    /**
+     * Expanded terms of the query without a latency budget: the future completes when the shared generation does
+     * and completes exceptionally when it fails, so the caller decides how long to wait for it.
+     */
+    CompletableFuture<Set<String>> expandQueryWithSynonymsAsync(String query);
 }
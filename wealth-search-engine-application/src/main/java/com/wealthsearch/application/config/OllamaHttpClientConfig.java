@@ -1,52 +1,89 @@
 package com.wealthsearch.application.config;
 
 import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestClientCustomizer;
 import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorNettyClientRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * HTTP transport of the Ollama calls. The blocking (RestClient) and streaming (WebClient) paths share one Reactor Netty
+ * client over a fixed keep-alive connection pool, whose gauges are published as
+ * {@code reactor.netty.connection.provider.*} metrics. With {@code ollama.client.pool.enabled=false} the blocking
+ * path falls back to a connection per call.
+ */
 @Configuration
 public class OllamaHttpClientConfig {
 
+    private static final String POOL_NAME = "ollama";
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider ollamaConnectionProvider(
+            @Value("${ollama.client.pool.max-connections:32}") int maxConnections,
+            @Value("${ollama.client.pool.pending-acquire-max-count:64}") int pendingAcquireMaxCount,
+            @Value("${ollama.client.pool.pending-acquire-timeout:PT5S}") Duration pendingAcquireTimeout,
+            @Value("${ollama.client.pool.max-idle-time:PT30S}") Duration maxIdleTime,
+            @Value("${ollama.client.pool.max-life-time:PT5M}") Duration maxLifeTime,
+            @Value("${ollama.client.pool.evict-in-background:PT30S}") Duration evictInBackground) {
+        return ConnectionProvider.builder(POOL_NAME)
+                                 .maxConnections(maxConnections)
+                                 .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                                 .pendingAcquireTimeout(pendingAcquireTimeout)
+                                 .maxIdleTime(maxIdleTime)
+                                 .maxLifeTime(maxLifeTime)
+                                 .evictInBackground(evictInBackground)
+                                 .metrics(true)
+                                 .build();
+    }
+
     @Bean
-    WebClientCustomizer ollamaWebClientTimeoutCustomizer(
+    HttpClient ollamaHttpClient(ConnectionProvider ollamaConnectionProvider,
             @Value("${ollama.client.connect-timeout:PT5S}") Duration connectTimeout,
             @Value("${ollama.client.response-timeout:PT15S}") Duration responseTimeout,
             @Value("${ollama.client.write-timeout:PT10S}") Duration writeTimeout) {
-        return builder -> {
-            long connectTimeoutMillis = toPositiveMillis(connectTimeout, 5000);
-            long responseTimeoutMillis = toPositiveMillis(responseTimeout, 15000);
-            long writeTimeoutMillis = toPositiveMillis(writeTimeout, 10000);
+        long connectTimeoutMillis = toPositiveMillis(connectTimeout, 5000);
+        long responseTimeoutMillis = toPositiveMillis(responseTimeout, 15000);
+        long writeTimeoutMillis = toPositiveMillis(writeTimeout, 10000);
 
-            HttpClient httpClient = HttpClient.create()
-                                              .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMillis)
-                                              .responseTimeout(Duration.ofMillis(responseTimeoutMillis))
-                                              .doOnConnected(connection -> {
-                                                  connection.addHandlerLast(new ReadTimeoutHandler(
-                                                          responseTimeoutMillis, TimeUnit.MILLISECONDS));
-                                                  connection.addHandlerLast(new WriteTimeoutHandler(writeTimeoutMillis,
-                                                          TimeUnit.MILLISECONDS));
-                                              });
+        // the read side is bounded per request by responseTimeout; a ReadTimeoutHandler would stay on the pooled
+        // connection and close it while idle
+        return HttpClient.create(ollamaConnectionProvider)
+                         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMillis)
+                         .option(ChannelOption.SO_KEEPALIVE, true)
+                         .responseTimeout(Duration.ofMillis(responseTimeoutMillis))
+                         .doOnConnected(connection -> connection.addHandlerLast(
+                                 new WriteTimeoutHandler(writeTimeoutMillis, TimeUnit.MILLISECONDS)));
+    }
 
-            builder.clientConnector(new ReactorClientHttpConnector(httpClient));
-        };
+    @Bean
+    WebClientCustomizer ollamaWebClientTimeoutCustomizer(HttpClient ollamaHttpClient) {
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(ollamaHttpClient));
     }
 
     @Bean
-    RestClientCustomizer ollamaRestClientTimeoutCustomizer(
+    RestClientCustomizer ollamaRestClientTimeoutCustomizer(HttpClient ollamaHttpClient,
+            @Value("${ollama.client.pool.enabled:true}") boolean poolEnabled,
             @Value("${ollama.client.connect-timeout:PT5S}") Duration connectTimeout,
             @Value("${ollama.client.read-timeout:PT15S}") Duration readTimeout) {
         return restClientBuilder -> {
+            if (poolEnabled) {
+                ReactorNettyClientRequestFactory requestFactory = new ReactorNettyClientRequestFactory(
+                        ollamaHttpClient);
+                requestFactory.setReadTimeout(toPositiveMillis(readTimeout, 15000));
+                restClientBuilder.requestFactory(requestFactory);
+                return;
+            }
+
             SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
             requestFactory.setConnectTimeout((int) toPositiveMillis(connectTimeout, 5000));
             requestFactory.setReadTimeout((int) toPositiveMillis(readTimeout, 15000));
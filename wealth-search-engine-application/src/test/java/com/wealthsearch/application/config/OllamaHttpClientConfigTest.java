@@ -0,0 +1,120 @@
+package com.wealthsearch.application.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.web.client.RestClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OllamaHttpClientConfigTest {
+
+    private final OllamaHttpClientConfig config = new OllamaHttpClientConfig();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private HttpServer server;
+
+    private ConnectionProvider connectionProvider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Metrics.addRegistry(meterRegistry);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/chat", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress()
+                                    .getPort());
+            // the connection is only reusable once the request was read to its end
+            try (InputStream requestBody = exchange.getRequestBody()) {
+                requestBody.transferTo(OutputStream.nullOutputStream());
+            }
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders()
+                    .set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        server.start();
+
+        connectionProvider = config.ollamaConnectionProvider(4, 8, Duration.ofSeconds(5), Duration.ofSeconds(30),
+                                                             Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        connectionProvider.dispose();
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    void pooledRestClientReusesKeepAliveConnectionAndPublishesPoolGauges() throws InterruptedException {
+        HttpClient httpClient = config.ollamaHttpClient(connectionProvider, Duration.ofSeconds(5),
+                                                        Duration.ofSeconds(5), Duration.ofSeconds(5));
+        RestClientCustomizer customizer = config.ollamaRestClientTimeoutCustomizer(httpClient, true,
+                                                                                   Duration.ofSeconds(5),
+                                                                                   Duration.ofSeconds(5));
+        RestClient.Builder builder = RestClient.builder()
+                                               .baseUrl("http://localhost:" + server.getAddress()
+                                                                                    .getPort());
+        customizer.customize(builder);
+        RestClient restClient = builder.build();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(restClient.post()
+                                 .uri("/api/chat")
+                                 .retrieve()
+                                 .body(String.class)).isEqualTo("{}");
+            // the connection goes back to the pool on the event loop, after the body reached the caller
+            awaitNoActiveConnections();
+        }
+
+        assertThat(clientPorts).hasSize(1);
+        assertThat(meterRegistry.find("reactor.netty.connection.provider.max.connections")
+                                .tag("name", "ollama")
+                                .gauge()).isNotNull()
+                                         .satisfies(gauge -> assertThat(gauge.value()).isEqualTo(4));
+    }
+
+    private void awaitNoActiveConnections() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (activeConnections() > 0) {
+            assertThat(System.nanoTime()).as("connection released in time")
+                                         .isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private double activeConnections() {
+        Collection<Gauge> gauges = meterRegistry.find("reactor.netty.connection.provider.active.connections")
+                                                .tag("name", "ollama")
+                                                .gauges();
+        assertThat(gauges).isNotEmpty();
+        return gauges.stream()
+                     .mapToDouble(Gauge::value)
+                     .sum();
+    }
+}
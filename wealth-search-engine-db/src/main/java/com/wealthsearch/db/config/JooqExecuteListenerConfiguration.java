@@ -0,0 +1,18 @@
+package com.wealthsearch.db.config;
+
+import com.wealthsearch.db.listener.QueryTimingExecuteListener;
+import java.time.Duration;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JooqExecuteListenerConfiguration {
+
+    @Bean
+    public DefaultExecuteListenerProvider queryTimingExecuteListenerProvider(
+            @Value("${db.slow-query.threshold:500ms}") Duration slowQueryThreshold) {
+        return new DefaultExecuteListenerProvider(new QueryTimingExecuteListener(slowQueryThreshold));
+    }
+}
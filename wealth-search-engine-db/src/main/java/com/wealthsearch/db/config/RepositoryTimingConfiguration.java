@@ -0,0 +1,18 @@
+package com.wealthsearch.db.config;
+
+import com.wealthsearch.db.metrics.RepositoryTimingPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RepositoryTimingConfiguration {
+
+    @Bean
+    public static RepositoryTimingPostProcessor repositoryTimingPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryTimingPostProcessor(() -> meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+}
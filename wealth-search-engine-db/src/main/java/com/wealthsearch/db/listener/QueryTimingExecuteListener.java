@@ -0,0 +1,49 @@
+package com.wealthsearch.db.listener;
+
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+
+/**
+ * Times every jOOQ execution, from rendering until the result is fully fetched, and logs the executions that exceed
+ * the slow query threshold. The SQL text is only rendered, with inlined bind values, for those. Per-method timings are
+ * recorded by {@link com.wealthsearch.db.metrics.RepositoryTimingInterceptor}.
+ */
+@Slf4j
+public class QueryTimingExecuteListener implements ExecuteListener {
+
+    private static final String STARTED_AT_KEY = QueryTimingExecuteListener.class.getName() + ".startedAt";
+
+    private final Duration slowQueryThreshold;
+
+    public QueryTimingExecuteListener(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Override
+    public void start(ExecuteContext ctx) {
+        ctx.data(STARTED_AT_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void end(ExecuteContext ctx) {
+        Object startedAt = ctx.data(STARTED_AT_KEY);
+        if (!(startedAt instanceof Long started)) {
+            return;
+        }
+
+        long elapsed = System.nanoTime() - started;
+        if (elapsed > slowQueryThreshold.toNanos()) {
+            log.warn("Slow query took {} ms: {}", elapsed / 1_000_000, renderInlined(ctx));
+        }
+    }
+
+    private String renderInlined(ExecuteContext ctx) {
+        if (ctx.query() != null) {
+            return ctx.dsl()
+                      .renderInlined(ctx.query());
+        }
+        return ctx.sql();
+    }
+}
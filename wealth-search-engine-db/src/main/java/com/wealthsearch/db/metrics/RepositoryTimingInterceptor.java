@@ -0,0 +1,57 @@
+package com.wealthsearch.db.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+
+/**
+ * Records every call of a repository method in a {@code db.query} timer tagged with the repository class and the
+ * method, covering all statements the method runs.
+ */
+public class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    public static final String TIMER_NAME = "db.query";
+
+    // resolved on first call, the interceptor is created with its post processor before the registry exists
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public RepositoryTimingInterceptor(Supplier<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getThis() == null || AopUtils.isToStringMethod(invocation.getMethod())
+                || AopUtils.isEqualsMethod(invocation.getMethod()) || AopUtils.isHashCodeMethod(
+                invocation.getMethod())) {
+            return invocation.proceed();
+        }
+
+        Timer timer = timers.computeIfAbsent(invocation.getMethod(), method -> timer(invocation));
+        long startedAt = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(MethodInvocation invocation) {
+        return Timer.builder(TIMER_NAME)
+                    .description("Execution time of repository methods, all their queries included")
+                    .tag("repository", AopUtils.getTargetClass(invocation.getThis())
+                                               .getSimpleName())
+                    .tag("method", invocation.getMethod()
+                                             .getName())
+                    .register(meterRegistry.get());
+    }
+}
@@ -0,0 +1,21 @@
+package com.wealthsearch.db.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Supplier;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Advises every {@link Repository} bean with a {@link RepositoryTimingInterceptor}, so each repository method is
+ * timed under its own name.
+ */
+public class RepositoryTimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public RepositoryTimingPostProcessor(Supplier<MeterRegistry> meterRegistry) {
+        this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Repository.class),
+                                                  new RepositoryTimingInterceptor(meterRegistry));
+        setBeforeExistingAdvisors(true);
+    }
+}
@@ -8,6 +8,7 @@ import com.wealthsearch.model.entity.search.SearchResult;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ClientRepository {
 
@@ -16,4 +17,6 @@ public interface ClientRepository {
     Optional<Client> findById(UUID clientId);
 
     SearchResult<ClientSearchHit> findClientsByCompanyDomain(List<String> words, PaginationParams paginationParams);
+
+    void forEachClient(Consumer<Client> action);
 }
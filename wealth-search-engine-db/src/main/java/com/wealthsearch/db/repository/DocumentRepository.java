@@ -2,6 +2,7 @@ package com.wealthsearch.db.repository;
 
 import com.wealthsearch.model.entity.Document;
 import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
 import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
 
@@ -18,5 +19,6 @@ public interface DocumentRepository {
 
     List<Document> findByClientId(UUID clientId);
 
-    SearchResult<DocumentSearchHit> searchByContent(Set<String> searchTerms, PaginationParams pagination);
+    SearchResult<DocumentSearchHit> searchByContent(Set<String> searchTerms, DocumentSearchOptions options,
+                                                    PaginationParams pagination);
 }
@@ -1,9 +1,11 @@
 package com.wealthsearch.db.repository;
 
+import static com.wealthsearch.db.jooq.tables.ClientDomains.CLIENT_DOMAINS;
 import static com.wealthsearch.db.jooq.tables.Clients.CLIENTS;
 
 import com.wealthsearch.db.jooq.tables.records.ClientsRecord;
 import com.wealthsearch.model.entity.Client;
+import com.wealthsearch.model.entity.search.ClientSearchCursor;
 import com.wealthsearch.model.entity.search.ClientSearchHit;
 import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
@@ -13,23 +15,31 @@ import com.wealthsearch.model.exception.EntityAlreadyExistsException;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.jooq.*;
 import org.jooq.Record;
-import org.jooq.conf.ParamType;
 import org.jooq.impl.DSL;
 import org.jooq.impl.SQLDataType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-@Slf4j
 @Repository
 @RequiredArgsConstructor
 public class JooqClientRepository implements ClientRepository {
 
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String TOTAL_COUNT_FIELD = "total_count";
+
     private final DSLContext dsl;
 
+    @Value("${search.window-count.enabled:true}")
+    private boolean windowCountEnabled;
+
     @Override
     public Client save(Client client) {
         UUID id = UUID.randomUUID();
@@ -66,6 +76,7 @@ public class JooqClientRepository implements ClientRepository {
                                   .fetchOptional()
                                   .orElseThrow(() -> new IllegalStateException("Failed to insert client"));
 
+        // the client_domains dictionary is kept up to date by a trigger on clients (V3)
         return record.into(Client.class);
     }
 
@@ -79,30 +90,38 @@ public class JooqClientRepository implements ClientRepository {
 
     @Override
     public SearchResult<ClientSearchHit> findClientsByCompanyDomain(List<String> words, PaginationParams pagination) {
-        Condition condition = this.createFuzzyMatchCondition(CLIENTS.DOMAIN_NAME, words);
+        // fuzzy matching and scoring run once per distinct domain, clients are joined back afterwards
+        Condition condition = this.createFuzzyMatchCondition(CLIENT_DOMAINS.DOMAIN_NAME, words);
 
-        Long totalCount = dsl.selectCount()
-                             .from(CLIENTS)
-                             .where(condition)
-                             .fetchOneInto(Long.class);
+        if (pagination.hasCursor()) {
+            ClientSearchCursor cursor = ClientSearchCursor.decode(pagination.getCursor(), words);
+            return this.findClientsAfterCursor(condition, words, cursor, pagination.getLimit());
+        }
 
-        if (totalCount == null || totalCount == 0) {
-            return new SearchResult<ClientSearchHit>();
+        SearchResult<ClientSearchHit> page = windowCountEnabled
+                ? this.findClientsWithWindowCount(condition, words, pagination)
+                : this.findClientsWithSeparateCount(condition, words, pagination);
+
+        if (pagination.getOffset() + page.getResults()
+                                         .size() < page.getTotalCount()) {
+            return this.withNextCursor(page, words);
         }
 
-        Field<Double> score = this.createScoreFieldForSelect(CLIENTS.DOMAIN_NAME, words);
+        return page;
+    }
 
-        List<Field<?>> fieldsForSelect = new ArrayList<>(List.of(CLIENTS.fields()));
-        fieldsForSelect.add(score);
+    private SearchResult<ClientSearchHit> findClientsWithSeparateCount(Condition condition, List<String> words,
+                                                                       PaginationParams pagination) {
+        long totalCount = this.countMatchingClients(condition);
+
+        if (totalCount == 0) {
+            return new SearchResult<ClientSearchHit>();
+        }
 
-        var query = dsl.select(fieldsForSelect)
-                       .from(CLIENTS)
-                       .where(condition)
-                       .orderBy(score.desc())
-                       .limit(pagination.getLimit())
-                       .offset(pagination.getOffset());
+        var query = this.createRankedClientsQuery(condition, words, null, List.of(), pagination.getLimit(),
+                                                  pagination.getOffset());
 
-        log.info("SQL Query: {}", query.getSQL(ParamType.INLINED));
+        Field<Double> score = query.field("score", Double.class);
 
         List<ClientSearchHit> results = query.fetch(record -> mapClientSearchHit(record, score));
 
@@ -112,6 +131,121 @@ public class JooqClientRepository implements ClientRepository {
                            .build();
     }
 
+    private SearchResult<ClientSearchHit> findClientsWithWindowCount(Condition condition, List<String> words,
+                                                                     PaginationParams pagination) {
+        // the total is computed by the same statement that returns the page
+        Field<Integer> totalCountField = DSL.count()
+                                            .over()
+                                            .as(TOTAL_COUNT_FIELD);
+
+        var query = this.createRankedClientsQuery(condition, words, null, List.of(totalCountField),
+                                                  pagination.getLimit(), pagination.getOffset());
+
+        Result<? extends Record> records = query.fetch();
+
+        if (records.isEmpty()) {
+            // a page past the end carries no window value, so the total has to be counted separately
+            long totalCount = pagination.getOffset() > 0 ? this.countMatchingClients(condition) : 0;
+
+            return SearchResult.<ClientSearchHit>builder()
+                               .results(new ArrayList<>())
+                               .totalCount(totalCount)
+                               .build();
+        }
+
+        Field<Double> score = query.field("score", Double.class);
+
+        List<ClientSearchHit> results = records.map(record -> mapClientSearchHit(record, score));
+
+        return SearchResult.<ClientSearchHit>builder()
+                           .results(results)
+                           .totalCount(records.getFirst()
+                                              .get(TOTAL_COUNT_FIELD, Long.class))
+                           .build();
+    }
+
+    private SearchResult<ClientSearchHit> findClientsAfterCursor(Condition condition, List<String> words,
+                                                                 ClientSearchCursor cursor, int limit) {
+        var query = this.createRankedClientsQuery(condition, words, cursor, List.of(), limit, 0);
+
+        Field<Double> score = query.field("score", Double.class);
+
+        SearchResult<ClientSearchHit> page = SearchResult.<ClientSearchHit>builder()
+                                                         .results(query.fetch(record -> mapClientSearchHit(record,
+                                                                                                           score)))
+                                                         .totalCount(cursor.totalCount())
+                                                         .build();
+
+        return page.getResults()
+                   .size() == limit ? this.withNextCursor(page, words) : page;
+    }
+
+    private SearchResult<ClientSearchHit> withNextCursor(SearchResult<ClientSearchHit> page, List<String> words) {
+        ClientSearchCursor cursor = ClientSearchCursor.after(page.getResults()
+                                                                 .getLast(), page.getTotalCount(), words);
+
+        return page.toBuilder()
+                   .nextCursor(cursor.encode())
+                   .build();
+    }
+
+    private Select<Record> createRankedClientsQuery(Condition condition, List<String> words, ClientSearchCursor cursor,
+                                                    List<Field<?>> extraFields, int limit, int offset) {
+        Field<Double> domainScore = this.createScoreFieldForSelect(CLIENT_DOMAINS.DOMAIN_NAME, words);
+
+        Table<?> matchedDomains = dsl.select(CLIENT_DOMAINS.DOMAIN_NAME, domainScore)
+                                     .from(CLIENT_DOMAINS)
+                                     .where(condition)
+                                     .asTable("matched_domains");
+
+        Field<String> matchedDomainName = matchedDomains.field(CLIENT_DOMAINS.DOMAIN_NAME);
+        Field<Double> score = matchedDomains.field(domainScore);
+
+        List<Field<?>> fieldsForSelect = new ArrayList<>(List.of(CLIENTS.fields()));
+        fieldsForSelect.add(score);
+        fieldsForSelect.addAll(extraFields);
+
+        Condition seekCondition = DSL.noCondition();
+        if (cursor != null) {
+            // pg_trgm scores are real, comparing against the cursor value as real keeps the boundary row exact
+            Field<Double> cursorScore = DSL.field("cast({0} as real)", SQLDataType.DOUBLE, DSL.val(cursor.score()));
+
+            seekCondition = score.lt(cursorScore)
+                                 .or(score.eq(cursorScore)
+                                          .and(CLIENTS.ID.gt(cursor.id())));
+        }
+
+        return dsl.select(fieldsForSelect)
+                  .from(CLIENTS)
+                  .join(matchedDomains)
+                  .on(CLIENTS.DOMAIN_NAME.eq(matchedDomainName))
+                  .where(seekCondition)
+                  .orderBy(score.desc(), CLIENTS.ID.asc())
+                  .limit(limit)
+                  .offset(offset);
+    }
+
+    private long countMatchingClients(Condition condition) {
+        Long totalCount = dsl.select(DSL.sum(CLIENT_DOMAINS.CLIENT_COUNT))
+                             .from(CLIENT_DOMAINS)
+                             .where(condition)
+                             .fetchOneInto(Long.class);
+
+        return totalCount == null ? 0 : totalCount;
+    }
+
+    // pgjdbc only streams with a fetch size inside a transaction, with autocommit it reads the whole result at once
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachClient(Consumer<Client> action) {
+        try (Stream<ClientsRecord> records = dsl.selectFrom(CLIENTS)
+                                                .fetchSize(EXPORT_FETCH_SIZE)
+                                                .fetchStream()) {
+            records.map(this::mapClientRecord)
+                   .forEach(action);
+        }
+    }
+
     private <T> Field<Double> createScoreFieldForSelect(Field<T> field, List<T> candidates) {
         if (candidates == null || candidates.isEmpty()) {
             throw new IllegalArgumentException("At least one candidate must be provided");
@@ -120,7 +254,7 @@ public class JooqClientRepository implements ClientRepository {
         var scores = candidates.stream()
                                .filter(Objects::nonNull)
                                .map(candidate -> {
-                                   Field<String> query = DSL.inline(candidate, SQLDataType.VARCHAR);
+                                   Field<String> query = DSL.val(candidate, SQLDataType.VARCHAR);
 
                                    Field<Double> trigram = DSL.function("similarity", SQLDataType.DOUBLE, field, query);
 
@@ -146,13 +280,13 @@ public class JooqClientRepository implements ClientRepository {
 
         for (String candidate : words) {
             if (candidate.length() < 3) {
-                Field<String> query = DSL.inline("%" + candidate + "%", SQLDataType.VARCHAR);
+                Field<String> query = DSL.val("%" + candidate + "%", SQLDataType.VARCHAR);
 
                 Condition candidateCondition = DSL.condition("{0} ILIKE {1}", field, query);
 
                 combined = combined.and(candidateCondition);
             } else {
-                Field<String> query = DSL.inline(candidate, SQLDataType.VARCHAR);
+                Field<String> query = DSL.val(candidate, SQLDataType.VARCHAR);
 
                 Condition candidateCondition = DSL.condition("{0} % {1}", field, query)
                                                   .or(DSL.condition("{0} <% {1}", query, field));
@@ -3,33 +3,53 @@ package com.wealthsearch.db.repository;
 import static com.wealthsearch.db.jooq.tables.Documents.DOCUMENTS;
 
 import com.wealthsearch.db.jooq.tables.records.DocumentsRecord;
+import com.wealthsearch.model.exception.BadRequestException;
 import com.wealthsearch.model.exception.EntityAlreadyExistsException;
 import com.wealthsearch.model.entity.Document;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
-import java.util.stream.Stream;
 
+import com.wealthsearch.model.entity.search.DocumentSearchCountMode;
+import com.wealthsearch.model.entity.search.DocumentSearchCursor;
 import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
+import com.wealthsearch.model.entity.search.DocumentSearchSort;
+import com.wealthsearch.model.entity.search.DocumentSearchView;
 import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record;
-import org.jooq.conf.ParamType;
+import org.jooq.Result;
+import org.jooq.Select;
+import org.jooq.SortField;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-@Slf4j
 @Repository
 @RequiredArgsConstructor
 public class JooqDocumentRepository implements DocumentRepository {
 
+    private static final String TOTAL_COUNT_FIELD = "total_count";
+
+    private static final String SNIPPET_FIELD = "snippet";
+
+    private static final String HEADLINE_OPTIONS = "MaxFragments=2, MaxWords=35, MinWords=15";
+
     private final DSLContext dsl;
 
+    @Value("${search.window-count.enabled:true}")
+    private boolean windowCountEnabled;
+
+    @Value("${search.documents-search.count-cap:1000}")
+    private int countCap;
+
     @Override
     public Document save(Document document) {
         UUID id = Optional.ofNullable(document.getId())
@@ -73,12 +93,82 @@ public class JooqDocumentRepository implements DocumentRepository {
     }
 
     @Override
-    public SearchResult<DocumentSearchHit> searchByContent(Set<String> searchTerms, PaginationParams pagination) {
+    public SearchResult<DocumentSearchHit> searchByContent(Set<String> searchTerms, DocumentSearchOptions options,
+                                                           PaginationParams pagination) {
         if (searchTerms == null || searchTerms.isEmpty()) {
             return emptySearchResult();
         }
 
-        var queryContext = buildFullTextSearchContext(searchTerms);
+        var queryContext = buildFullTextSearchContext(searchTerms, options);
+
+        if (pagination.hasCursor()) {
+            DocumentSearchCursor cursor = DocumentSearchCursor.decode(pagination.getCursor());
+            if (cursor.sort() != queryContext.sort) {
+                throw new BadRequestException("Cursor was issued for a different sort order");
+            }
+            if (!cursor.fingerprint()
+                       .equals(queryContext.fingerprint)) {
+                // the carried position and total count only hold for the terms and filters that produced them
+                throw new BadRequestException("Cursor was issued for a different query");
+            }
+            return searchAfterCursor(queryContext, cursor, pagination.getLimit());
+        }
+
+        if (options.getCountMode() != DocumentSearchCountMode.EXACT) {
+            SearchResult<DocumentSearchHit> page = searchWithInexactCount(queryContext, options.getCountMode(),
+                                                                          pagination);
+
+            return page.getResults()
+                       .size() == pagination.getLimit() ? withNextCursor(page, queryContext) : page;
+        }
+
+        // a window count has to see every match, which would stop the recency scan from ending after the page
+        SearchResult<DocumentSearchHit> page = windowCountEnabled && queryContext.sort == DocumentSearchSort.RELEVANCE
+                ? searchWithWindowCount(queryContext, pagination)
+                : searchWithSeparateCount(queryContext, pagination);
+
+        if (pagination.getOffset() + page.getResults()
+                                         .size() < page.getTotalCount()) {
+            return withNextCursor(page, queryContext);
+        }
+
+        return page;
+    }
+
+    private SearchResult<DocumentSearchHit> searchWithInexactCount(FullTextSearchContext context,
+                                                                   DocumentSearchCountMode countMode,
+                                                                   PaginationParams pagination) {
+        List<DocumentSearchHit> results = fetchRankedResults(context, pagination);
+        long seen = pagination.getOffset() + results.size();
+
+        // a page that is not full is the last one, so the total is known without counting
+        if (results.size() < pagination.getLimit() && (!results.isEmpty() || pagination.getOffset() == 0)) {
+            return SearchResult.<DocumentSearchHit>builder()
+                               .results(results)
+                               .totalCount(seen)
+                               .build();
+        }
+
+        long totalCount;
+        boolean exact;
+        if (countMode == DocumentSearchCountMode.CAPPED) {
+            long cappedCount = countMatchesUpTo(context, countCap + 1);
+            exact = cappedCount <= countCap;
+            totalCount = Math.min(cappedCount, countCap);
+        } else {
+            totalCount = estimateMatches(context);
+            exact = false;
+        }
+
+        return SearchResult.<DocumentSearchHit>builder()
+                           .results(results)
+                           .totalCount(Math.max(totalCount, seen))
+                           .totalCountExact(exact)
+                           .build();
+    }
+
+    private SearchResult<DocumentSearchHit> searchWithSeparateCount(FullTextSearchContext queryContext,
+                                                                    PaginationParams pagination) {
         long totalCount = countMatches(queryContext);
         if (totalCount > 0) {
             List<DocumentSearchHit> results = fetchRankedResults(queryContext, pagination);
@@ -95,23 +185,117 @@ public class JooqDocumentRepository implements DocumentRepository {
         }
     }
 
-    private FullTextSearchContext buildFullTextSearchContext(Set<String> searchTerms) {
+    private SearchResult<DocumentSearchHit> searchWithWindowCount(FullTextSearchContext context,
+                                                                  PaginationParams pagination) {
+        // the total is computed by the same statement that returns the page
+        Field<Integer> totalCountField = DSL.count()
+                                            .over()
+                                            .as(TOTAL_COUNT_FIELD);
+
+        var query = createRankedQuery(context, DSL.noCondition(), List.of(totalCountField), pagination.getLimit(),
+                                      pagination.getOffset());
+
+        Result<Record> records = query.fetch();
+
+        if (records.isEmpty()) {
+            // a page past the end carries no window value, so the total has to be counted separately
+            long totalCount = pagination.getOffset() > 0 ? countMatches(context) : 0;
+
+            return SearchResult.<DocumentSearchHit>builder()
+                               .results(new ArrayList<>())
+                               .totalCount(totalCount)
+                               .build();
+        }
+
+        return SearchResult.<DocumentSearchHit>builder()
+                           .results(records.map(this::mapToDocumentSearchHit))
+                           .totalCount(records.getFirst()
+                                              .get(TOTAL_COUNT_FIELD, Long.class))
+                           .build();
+    }
+
+    private SearchResult<DocumentSearchHit> searchAfterCursor(FullTextSearchContext context,
+                                                              DocumentSearchCursor cursor, int limit) {
+        Condition seekCondition = seekAfter(context, cursor);
+
+        var query = createRankedQuery(context, seekCondition, List.of(), limit, 0);
+
+        SearchResult<DocumentSearchHit> page = SearchResult.<DocumentSearchHit>builder()
+                                                           .results(query.fetch()
+                                                                         .map(this::mapToDocumentSearchHit))
+                                                           .totalCount(cursor.totalCount())
+                                                           .totalCountExact(cursor.totalCountExact())
+                                                           .build();
+
+        return page.getResults()
+                   .size() == limit ? withNextCursor(page, context) : page;
+    }
+
+    private Condition seekAfter(FullTextSearchContext context, DocumentSearchCursor cursor) {
+        if (context.sort == DocumentSearchSort.RECENT) {
+            return DSL.row(DOCUMENTS.CREATED_AT, DOCUMENTS.ID)
+                      .lt(cursor.createdAt(), cursor.id());
+        }
+
+        // rank is compared as real, the type ts_rank_cd returns, so the cursor value matches the row exactly
+        return DSL.condition("({0}, {1}, {2}) < (cast({3} as real), {4}, {5})", context.rankExpression,
+                             DOCUMENTS.CREATED_AT, DOCUMENTS.ID, DSL.val(cursor.rank()), DSL.val(cursor.createdAt()),
+                             DSL.val(cursor.id()));
+    }
+
+    private SearchResult<DocumentSearchHit> withNextCursor(SearchResult<DocumentSearchHit> page,
+                                                           FullTextSearchContext context) {
+        DocumentSearchHit last = page.getResults()
+                                     .getLast();
+        Document document = last.getDocument();
+
+        var cursor = new DocumentSearchCursor(context.sort, last.getScore(), document.getCreatedAt(),
+                                              document.getId(), page.getTotalCount(), page.isTotalCountExact(),
+                                              context.fingerprint, context.searchTerms);
+
+        return page.toBuilder()
+                   .nextCursor(cursor.encode())
+                   .build();
+    }
+
+    private FullTextSearchContext buildFullTextSearchContext(Set<String> searchTerms, DocumentSearchOptions options) {
         String searchQuery = String.join(" OR ", searchTerms);
         var tsquery = createTsQuery(searchQuery);
-        var tsvField = DSL.field("tsv");
-        var matchCondition = DSL.condition("{0} @@ {1}", tsvField, tsquery);
-        var rankField = calculateRank(tsvField, tsquery);
+        var tsvField = DSL.field("search_tsv");
+        var matchCondition = DSL.condition("{0} @@ {1}", tsvField, tsquery)
+                                .and(clientCondition(options))
+                                .and(createdAtCondition(options));
+        var rankExpression = calculateRank(tsvField, tsquery);
+
+        return new FullTextSearchContext(tsquery, matchCondition, rankExpression, rankExpression.as("rank"),
+                                         options.getView(), options.getSort(),
+                                         DocumentSearchCursor.fingerprint(searchTerms, options), searchTerms);
+    }
+
+    private Condition clientCondition(DocumentSearchOptions options) {
+        // client_id and search_tsv share one btree_gin index, so the filter narrows the postings before ranking
+        return options.hasClientFilter() ? DOCUMENTS.CLIENT_ID.in(options.getClientIds()) : DSL.noCondition();
+    }
 
-        return new FullTextSearchContext(tsquery, matchCondition, rankField);
+    private Condition createdAtCondition(DocumentSearchOptions options) {
+        Condition condition = DSL.noCondition();
+        if (options.getCreatedFrom() != null) {
+            condition = condition.and(DOCUMENTS.CREATED_AT.ge(toUtc(options.getCreatedFrom())));
+        }
+        if (options.getCreatedTo() != null) {
+            condition = condition.and(DOCUMENTS.CREATED_AT.lt(toUtc(options.getCreatedTo())));
+        }
+        return condition;
     }
 
     private org.jooq.Field<Object> createTsQuery(String searchQuery) {
-        return DSL.function("websearch_to_tsquery", Object.class, DSL.inline("english"), DSL.inline(searchQuery));
+        return DSL.function("websearch_to_tsquery", Object.class, DSL.inline("english"),
+                            DSL.val(searchQuery, SQLDataType.VARCHAR));
     }
 
+    // the default label weights {D 0.1, C 0.2, B 0.4, A 1.0} already rank title (A) matches above content (B) ones
     private org.jooq.Field<Double> calculateRank(org.jooq.Field<?> tsvField, org.jooq.Field<Object> tsquery) {
-        return DSL.function("ts_rank_cd", Double.class, tsvField, tsquery, DSL.inline(0))
-                  .as("rank");
+        return DSL.function("ts_rank_cd", Double.class, tsvField, tsquery, DSL.inline(0));
     }
 
     private long countMatches(FullTextSearchContext context) {
@@ -121,29 +305,90 @@ public class JooqDocumentRepository implements DocumentRepository {
                   .fetchOne(0, long.class);
     }
 
-    private List<DocumentSearchHit> fetchRankedResults(FullTextSearchContext context, PaginationParams pagination) {
-        List<Field<?>> fieldsForSelect = Stream.concat(DOCUMENTS.fieldStream(), Stream.of(context.rankField))
-                                               .toList();;
+    private long countMatchesUpTo(FullTextSearchContext context, int limit) {
+        // stops reading matches once the limit is reached instead of visiting every matching row
+        return dsl.fetchCount(dsl.selectOne()
+                                 .from(DOCUMENTS)
+                                 .where(context.matchCondition)
+                                 .limit(limit));
+    }
 
-        var query = dsl.select(fieldsForSelect)
-                       .from(DOCUMENTS)
-                       .where(context.matchCondition)
-                       .orderBy(context.rankField.desc(), DOCUMENTS.CREATED_AT.desc())
-                       .limit(pagination.getLimit())
-                       .offset(pagination.getOffset());
+    private long estimateMatches(FullTextSearchContext context) {
+        double estimatedRows = dsl.explain(dsl.selectOne()
+                                              .from(DOCUMENTS)
+                                              .where(context.matchCondition))
+                                  .rows();
+        return Math.round(estimatedRows);
+    }
 
-        log.info("SQL Query: {}", query.getSQL(ParamType.INLINED));
+    private List<DocumentSearchHit> fetchRankedResults(FullTextSearchContext context, PaginationParams pagination) {
+        var query = createRankedQuery(context, DSL.noCondition(), List.of(), pagination.getLimit(),
+                                      pagination.getOffset());
 
         return query.fetch()
                     .map(this::mapToDocumentSearchHit);
     }
 
+    private Select<Record> createRankedQuery(FullTextSearchContext context, Condition seekCondition,
+                                             List<Field<?>> extraFields, int limit, int offset) {
+        List<Field<?>> fieldsForSelect = new ArrayList<>(List.of(DOCUMENTS.fields()));
+        if (context.view == DocumentSearchView.SNIPPET) {
+            fieldsForSelect.remove(DOCUMENTS.CONTENT);
+        }
+        fieldsForSelect.add(context.rankField);
+        fieldsForSelect.addAll(extraFields);
+
+        var rankedPage = dsl.select(fieldsForSelect)
+                            .from(DOCUMENTS)
+                            .where(context.matchCondition)
+                            .and(seekCondition)
+                            .orderBy(ordering(context, context.rankField, DOCUMENTS.CREATED_AT, DOCUMENTS.ID))
+                            .limit(limit)
+                            .offset(offset);
+
+        if (context.view == DocumentSearchView.FULL) {
+            return rankedPage;
+        }
+
+        return withSnippets(rankedPage, context);
+    }
+
+    private Select<Record> withSnippets(Select<Record> rankedPage, FullTextSearchContext context) {
+        // content is only read and highlighted for the rows that made it onto the page
+        Table<Record> page = rankedPage.asTable("page");
+        Field<UUID> pageId = page.field(DOCUMENTS.ID);
+        Field<Double> pageRank = page.field(context.rankField);
+        Field<OffsetDateTime> pageCreatedAt = page.field(DOCUMENTS.CREATED_AT);
+
+        Field<String> snippet = DSL.function("ts_headline", String.class, DSL.inline("english"), DOCUMENTS.CONTENT,
+                                             context.tsquery, DSL.inline(HEADLINE_OPTIONS))
+                                   .as(SNIPPET_FIELD);
+
+        return dsl.select(page.fields())
+                  .select(snippet)
+                  .from(page)
+                  .join(DOCUMENTS)
+                  .on(DOCUMENTS.ID.eq(pageId))
+                  .orderBy(ordering(context, pageRank, pageCreatedAt, pageId));
+    }
+
+    private List<SortField<?>> ordering(FullTextSearchContext context, Field<Double> rank,
+                                        Field<OffsetDateTime> createdAt, Field<UUID> id) {
+        if (context.sort == DocumentSearchSort.RECENT) {
+            // matches the (created_at desc, id desc) index, so the scan ends as soon as the page is filled
+            return List.of(createdAt.desc(), id.desc());
+        }
+        return List.of(rank.desc(), createdAt.desc(), id.desc());
+    }
+
     private DocumentSearchHit mapToDocumentSearchHit(Record record) {
         Document document = record.into(Document.class);
         double score = record.get("rank", Double.class);
+        String snippet = record.field(SNIPPET_FIELD) != null ? record.get(SNIPPET_FIELD, String.class) : null;
         return DocumentSearchHit.builder()
                                 .document(document)
                                 .score(score)
+                                .snippet(snippet)
                                 .build();
     }
 
@@ -164,5 +409,8 @@ public class JooqDocumentRepository implements DocumentRepository {
         return dateTime == null ? null : dateTime.withOffsetSameInstant(ZoneOffset.UTC);
     }
 
-    private record FullTextSearchContext(Field<Object> tsquery, Condition matchCondition, Field<Double> rankField) { }
+    private record FullTextSearchContext(Field<Object> tsquery, Condition matchCondition,
+                                         Field<Double> rankExpression, Field<Double> rankField,
+                                         DocumentSearchView view, DocumentSearchSort sort, String fingerprint,
+                                         Set<String> searchTerms) { }
 }
@@ -0,0 +1,62 @@
+package com.wealthsearch.db.repository;
+
+import static com.wealthsearch.db.jooq.tables.QueryExpansions.QUERY_EXPANSIONS;
+
+import com.wealthsearch.db.jooq.tables.records.QueryExpansionsRecord;
+import com.wealthsearch.model.entity.QueryExpansion;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.jooq.DSLContext;
+import org.jooq.InsertValuesStep6;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class JooqQueryExpansionRepository implements QueryExpansionRepository {
+
+    private final DSLContext dsl;
+
+    @Override
+    public Optional<QueryExpansion> findUnexpired(String normalizedQuery, String model, String promptVersion,
+            OffsetDateTime now) {
+        return dsl.selectFrom(QUERY_EXPANSIONS)
+                  .where(QUERY_EXPANSIONS.NORMALIZED_QUERY.eq(normalizedQuery))
+                  .and(QUERY_EXPANSIONS.MODEL.eq(model))
+                  .and(QUERY_EXPANSIONS.PROMPT_VERSION.eq(promptVersion))
+                  .and(QUERY_EXPANSIONS.EXPIRES_AT.gt(now))
+                  .fetchOptional(r -> r.into(QueryExpansion.class));
+    }
+
+    @Override
+    public void upsertAll(Collection<QueryExpansion> expansions) {
+        if (expansions.isEmpty()) {
+            return;
+        }
+
+        InsertValuesStep6<QueryExpansionsRecord, String, String, String, String, OffsetDateTime, OffsetDateTime> insert =
+                dsl.insertInto(QUERY_EXPANSIONS, QUERY_EXPANSIONS.NORMALIZED_QUERY, QUERY_EXPANSIONS.MODEL,
+                               QUERY_EXPANSIONS.PROMPT_VERSION, QUERY_EXPANSIONS.TERMS, QUERY_EXPANSIONS.CREATED_AT,
+                               QUERY_EXPANSIONS.EXPIRES_AT);
+        for (QueryExpansion expansion : expansions) {
+            insert = insert.values(expansion.getNormalizedQuery(), expansion.getModel(), expansion.getPromptVersion(),
+                                   expansion.getTerms(), expansion.getCreatedAt(), expansion.getExpiresAt());
+        }
+
+        insert.onConflict(QUERY_EXPANSIONS.NORMALIZED_QUERY, QUERY_EXPANSIONS.MODEL, QUERY_EXPANSIONS.PROMPT_VERSION)
+              .doUpdate()
+              .set(QUERY_EXPANSIONS.TERMS, DSL.excluded(QUERY_EXPANSIONS.TERMS))
+              .set(QUERY_EXPANSIONS.CREATED_AT, DSL.excluded(QUERY_EXPANSIONS.CREATED_AT))
+              .set(QUERY_EXPANSIONS.EXPIRES_AT, DSL.excluded(QUERY_EXPANSIONS.EXPIRES_AT))
+              .execute();
+    }
+
+    @Override
+    public int deleteExpired(OffsetDateTime now) {
+        return dsl.deleteFrom(QUERY_EXPANSIONS)
+                  .where(QUERY_EXPANSIONS.EXPIRES_AT.le(now))
+                  .execute();
+    }
+}
@@ -0,0 +1,20 @@
+package com.wealthsearch.db.repository;
+
+import com.wealthsearch.model.entity.QueryExpansion;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface QueryExpansionRepository {
+
+    Optional<QueryExpansion> findUnexpired(String normalizedQuery, String model, String promptVersion,
+            OffsetDateTime now);
+
+    /**
+     * Inserts the expansions in one statement, replacing stored ones with the same key. Keys must be distinct within
+     * the batch.
+     */
+    void upsertAll(Collection<QueryExpansion> expansions);
+
+    int deleteExpired(OffsetDateTime now);
+}
@@ -0,0 +1,36 @@
+CREATE TABLE client_domains (
+    domain_name  VARCHAR(128) PRIMARY KEY,
+    client_count BIGINT       NOT NULL
+);
+
+-- The dictionary is maintained by the database, so clients inserted by any writer (nodes still on the previous
+-- release during a rolling deploy included) are registered under their domain.
+CREATE OR REPLACE FUNCTION client_domains_register() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO client_domains (domain_name, client_count)
+    VALUES (NEW.domain_name, 1)
+    ON CONFLICT (domain_name) DO UPDATE SET client_count = client_domains.client_count + 1;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS client_domains_register ON clients;
+
+-- Creating the trigger locks clients against inserts until this migration commits, so the backfill below and the
+-- trigger together count every client exactly once.
+CREATE TRIGGER client_domains_register
+    AFTER INSERT ON clients
+    FOR EACH ROW EXECUTE FUNCTION client_domains_register();
+
+INSERT INTO client_domains (domain_name, client_count)
+SELECT domain_name, count(*)
+FROM clients
+GROUP BY domain_name;
+
+CREATE INDEX idx_client_domains_domain_name_trgm
+    ON client_domains USING gin (domain_name gin_trgm_ops);
+
+CREATE INDEX idx_clients_domain_name
+    ON clients (domain_name);
@@ -0,0 +1,65 @@
+-- Title and content are indexed together in one weighted tsvector, so a single GIN lookup covers both fields:
+-- title lexemes get weight A and content lexemes weight B.
+--
+-- A stored generated column cannot be added without rewriting the table under an exclusive lock, so the column
+-- is maintained by a trigger instead and existing rows are backfilled in short committed batches.
+-- The migration runs outside a transaction (see the .conf file next to it).
+
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS search_tsv tsvector;
+
+CREATE OR REPLACE FUNCTION documents_search_tsv(title TEXT, content TEXT) RETURNS tsvector
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+       setweight(to_tsvector('english', coalesce(content, '')), 'B')
+$$;
+
+CREATE OR REPLACE FUNCTION documents_search_tsv_refresh() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    NEW.search_tsv := documents_search_tsv(NEW.title, NEW.content);
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS documents_search_tsv_refresh ON documents;
+
+CREATE TRIGGER documents_search_tsv_refresh
+    BEFORE INSERT OR UPDATE OF title, content ON documents
+    FOR EACH ROW EXECUTE FUNCTION documents_search_tsv_refresh();
+
+-- Rows written before the trigger existed are filled in id order, committing after every batch so row locks are
+-- held only briefly and concurrent inserts and updates are not blocked for the whole backfill.
+DO
+$$
+DECLARE
+    last_id  UUID := '00000000-0000-0000-0000-000000000000';
+    batch_id UUID;
+BEGIN
+    LOOP
+        WITH batch AS (
+            SELECT id
+            FROM documents
+            WHERE id > last_id
+            ORDER BY id
+            LIMIT 5000
+        ), updated AS (
+            UPDATE documents d
+            SET search_tsv = documents_search_tsv(d.title, d.content)
+            FROM batch
+            WHERE d.id = batch.id
+              AND d.search_tsv IS NULL
+        )
+        SELECT id INTO batch_id FROM batch ORDER BY id DESC LIMIT 1;
+
+        EXIT WHEN batch_id IS NULL;
+        last_id := batch_id;
+        COMMIT;
+    END LOOP;
+END
+$$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS documents_search_tsv_gin ON documents USING gin (search_tsv);
+
+ANALYZE documents;
@@ -0,0 +1,14 @@
+-- Client-scoped document search filters on client_id and matches search_tsv in one index scan: btree_gin lets the
+-- uuid column sit next to the tsvector in a multicolumn GIN index, so Postgres intersects the client and term
+-- postings instead of ranking every match in the corpus and discarding other clients' rows afterwards.
+--
+-- A multicolumn GIN index serves conditions on any subset of its columns, so unscoped searches use the same index
+-- and the single-column one from V4 is dropped.
+-- The migration runs outside a transaction (see the .conf file next to it).
+
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS documents_client_id_search_tsv_gin
+    ON documents USING gin (client_id, search_tsv);
+
+DROP INDEX CONCURRENTLY IF EXISTS documents_search_tsv_gin;
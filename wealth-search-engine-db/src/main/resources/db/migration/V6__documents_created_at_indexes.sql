@@ -0,0 +1,10 @@
+-- Date-bounded searches ("documents from last quarter") and the recency sort.
+--
+-- created_at may be supplied by whoever saves the document, so rows are not necessarily stored in creation order and a
+-- BRIN summary of the column would not stay selective. A btree serves both uses instead: its range scan bounds
+-- relevance-ranked searches to the window, and walking (created_at desc, id desc) while checking each row against the
+-- query lets a recency page stop after `limit` matches instead of sorting every match.
+-- The migration runs outside a transaction (see the .conf file next to it).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS documents_created_at_id
+    ON documents (created_at DESC, id DESC);
@@ -0,0 +1,14 @@
+-- Cluster-wide second tier beneath the in-memory expansion cache, so a fresh node starts warm.
+CREATE TABLE query_expansions (
+    normalized_query TEXT                     NOT NULL,
+    model            VARCHAR(128)             NOT NULL,
+    prompt_version   VARCHAR(32)              NOT NULL,
+    terms            TEXT                     NOT NULL,
+    created_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (normalized_query, model, prompt_version)
+);
+
+-- serves the periodic purge of expired rows
+CREATE INDEX query_expansions_expires_at
+    ON query_expansions (expires_at);
@@ -0,0 +1,49 @@
+package com.wealthsearch.db.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wealthsearch.db.config.JooqExecuteListenerConfiguration;
+import com.wealthsearch.db.config.JooqSettingsConfiguration;
+import com.wealthsearch.db.repository.ClientRepository;
+import com.wealthsearch.db.repository.JooqClientRepository;
+import com.wealthsearch.db.repository.support.PostgresContainerSupport;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jooq.JooqTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Import;
+
+@JooqTest(properties = "db.slow-query.threshold=0ms")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+    JooqClientRepository.class,
+    JooqSettingsConfiguration.class,
+    JooqExecuteListenerConfiguration.class
+})
+@ImportAutoConfiguration(FlywayAutoConfiguration.class)
+@ExtendWith(OutputCaptureExtension.class)
+class QueryTimingExecuteListenerTest extends PostgresContainerSupport {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Test
+    void logsQueriesOverThresholdWithInlinedValues(CapturedOutput output) {
+        clientRepository.findClientsByCompanyDomain(List.of("neviswealth"), PaginationParams.of(10, 0));
+
+        assertThat(output.getOut()).contains("Slow query took")
+                                   .contains("'neviswealth'");
+    }
+
+    @SpringBootConfiguration
+    static class TestConfig {
+    }
+}
@@ -0,0 +1,77 @@
+package com.wealthsearch.db.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wealthsearch.db.config.JooqSettingsConfiguration;
+import com.wealthsearch.db.config.RepositoryTimingConfiguration;
+import com.wealthsearch.db.repository.ClientRepository;
+import com.wealthsearch.db.repository.JooqClientRepository;
+import com.wealthsearch.db.repository.support.PostgresContainerSupport;
+import com.wealthsearch.model.entity.Client;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jooq.JooqTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+@JooqTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+    JooqClientRepository.class,
+    JooqSettingsConfiguration.class,
+    RepositoryTimingConfiguration.class
+})
+@ImportAutoConfiguration(FlywayAutoConfiguration.class)
+class RepositoryTimingPostProcessorTest extends PostgresContainerSupport {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void recordsOneTimerSamplePerRepositoryMethodCall() {
+        clientRepository.save(Client.builder()
+                                    .firstName("Timed")
+                                    .lastName("Client")
+                                    .email("timed@neviswealth.com")
+                                    .countryOfResidence("US")
+                                    .build());
+
+        clientRepository.findClientsByCompanyDomain(List.of("neviswealth"), PaginationParams.of(10, 0));
+
+        Timer searchTimer = meterRegistry.find(RepositoryTimingInterceptor.TIMER_NAME)
+                                         .tag("repository", "JooqClientRepository")
+                                         .tag("method", "findClientsByCompanyDomain")
+                                         .timer();
+        Timer saveTimer = meterRegistry.find(RepositoryTimingInterceptor.TIMER_NAME)
+                                       .tag("repository", "JooqClientRepository")
+                                       .tag("method", "save")
+                                       .timer();
+
+        assertThat(searchTimer).isNotNull();
+        assertThat(searchTimer.count()).isEqualTo(1);
+        // save runs several statements, they are one call of the method
+        assertThat(saveTimer).isNotNull();
+        assertThat(saveTimer.count()).isEqualTo(1);
+    }
+
+    @SpringBootConfiguration
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
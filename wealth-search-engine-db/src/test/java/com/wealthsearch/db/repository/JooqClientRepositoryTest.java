@@ -1,9 +1,11 @@
 package com.wealthsearch.db.repository;
 
+import static com.wealthsearch.db.jooq.tables.Clients.CLIENTS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.wealthsearch.db.config.JooqSettingsConfiguration;
+import com.wealthsearch.model.exception.BadRequestException;
 import com.wealthsearch.model.exception.DuplicateClientEmailException;
 import com.wealthsearch.db.repository.support.PostgresContainerSupport;
 import com.wealthsearch.model.entity.Client;
@@ -12,8 +14,10 @@ import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import org.jooq.DSLContext;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringBootConfiguration;
@@ -35,6 +39,9 @@ class JooqClientRepositoryTest extends PostgresContainerSupport {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private DSLContext dsl;
+
     @Test
     void saveAssignsIdentifierTimestampAndPersists() {
         var saved = clientRepository.save(Client.builder()
@@ -205,6 +212,34 @@ class JooqClientRepositoryTest extends PostgresContainerSupport {
         assertThat(firstHit.getClient().getId()).isEqualTo(exact.getId());
     }
 
+    @Test
+    void findByEmailDomainReturnsEveryClientOfSharedDomain() {
+        for (int i = 0; i < 3; i++) {
+            clientRepository.save(Client.builder()
+                                        .firstName("Shared" + i)
+                                        .lastName("Domain")
+                                        .email("advisor" + i + "@neviswealth.com")
+                                        .countryOfResidence("US")
+                                        .build());
+        }
+
+        clientRepository.save(Client.builder()
+                                    .firstName("Other")
+                                    .lastName("Domain")
+                                    .email("support@wealthbridge.ai")
+                                    .countryOfResidence("US")
+                                    .build());
+
+        SearchResult<ClientSearchHit> searchResult = clientRepository.findClientsByCompanyDomain(
+                List.of("neviswealth"),
+                PaginationParams.of(10, 0));
+
+        assertThat(searchResult.getTotalCount()).isEqualTo(3);
+        assertThat(searchResult.getResults()).hasSize(3)
+                                              .extracting(ClientSearchHit::getScore)
+                                              .containsOnly(1.0);
+    }
+
     @Test
     void findByEmailDomainWithPagination() {
         for (int i = 0; i < 5; i++) {
@@ -231,6 +266,107 @@ class JooqClientRepositoryTest extends PostgresContainerSupport {
         assertThat(firstPage.getResults()).isNotEqualTo(secondPage.getResults());
     }
 
+    @Test
+    void findByEmailDomainWithCursorWalksAllPagesInScoreOrder() {
+        List<String> emails = List.of("a@neviswealth.com", "b@neviswealth.com", "c@neviswealthgroup.com",
+                                      "d@neviswealthgroup.com", "e@nevis.com");
+        for (String email : emails) {
+            clientRepository.save(Client.builder()
+                                        .firstName("Cursor")
+                                        .lastName("Client")
+                                        .email(email)
+                                        .countryOfResidence("US")
+                                        .build());
+        }
+
+        List<UUID> expectedOrder = clientRepository.findClientsByCompanyDomain(List.of("neviswealth"),
+                                                                               PaginationParams.of(10, 0))
+                                                   .getResults()
+                                                   .stream()
+                                                   .map(hit -> hit.getClient()
+                                                                  .getId())
+                                                   .toList();
+
+        List<UUID> walkedOrder = new ArrayList<>();
+        SearchResult<ClientSearchHit> page = clientRepository.findClientsByCompanyDomain(List.of("neviswealth"),
+                                                                                         PaginationParams.of(2, 0));
+        walkedOrder.addAll(page.getResults()
+                               .stream()
+                               .map(hit -> hit.getClient()
+                                              .getId())
+                               .toList());
+
+        while (page.getNextCursor() != null) {
+            page = clientRepository.findClientsByCompanyDomain(List.of("neviswealth"),
+                                                               PaginationParams.of(2, 0, page.getNextCursor()));
+
+            assertThat(page.getTotalCount()).isEqualTo(expectedOrder.size());
+            walkedOrder.addAll(page.getResults()
+                                   .stream()
+                                   .map(hit -> hit.getClient()
+                                                  .getId())
+                                   .toList());
+        }
+
+        assertThat(expectedOrder).hasSizeGreaterThan(2);
+        assertThat(walkedOrder).containsExactlyElementsOf(expectedOrder);
+    }
+
+    @Test
+    void findByEmailDomainRejectsMalformedCursor() {
+        assertThatThrownBy(() -> clientRepository.findClientsByCompanyDomain(List.of("neviswealth"),
+                                                                             PaginationParams.of(2, 0, "%%%")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void findByEmailDomainFindsClientsInsertedByOtherWriters() {
+        clientRepository.save(Client.builder()
+                                    .firstName("Through")
+                                    .lastName("Repository")
+                                    .email("repository@harbourcapital.com")
+                                    .countryOfResidence("US")
+                                    .build());
+        // a writer that knows nothing of client_domains, such as a node still on the previous release
+        dsl.insertInto(CLIENTS)
+           .set(CLIENTS.ID, UUID.randomUUID())
+           .set(CLIENTS.FIRST_NAME, "Other")
+           .set(CLIENTS.LAST_NAME, "Writer")
+           .set(CLIENTS.EMAIL, "other.writer@harbourcapital.com")
+           .set(CLIENTS.COUNTRY_OF_RESIDENCE, "US")
+           .set(CLIENTS.CREATED_AT, OffsetDateTime.now(ZoneOffset.UTC))
+           .set(CLIENTS.DOMAIN_NAME, "harbourcapital")
+           .execute();
+
+        SearchResult<ClientSearchHit> result = clientRepository.findClientsByCompanyDomain(List.of("harbourcapital"),
+                                                                                           PaginationParams.of(10, 0));
+
+        assertThat(result.getTotalCount()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(hit -> hit.getClient()
+                                                              .getEmail())
+                                       .containsExactlyInAnyOrder("repository@harbourcapital.com",
+                                                                  "other.writer@harbourcapital.com");
+    }
+
+    @Test
+    void findByEmailDomainRejectsCursorOfAnotherQuery() {
+        for (String email : List.of("a@neviswealth.com", "b@neviswealth.com", "c@neviswealth.com")) {
+            clientRepository.save(Client.builder()
+                                        .firstName("Cursor")
+                                        .lastName("Client")
+                                        .email(email)
+                                        .countryOfResidence("US")
+                                        .build());
+        }
+        String cursor = clientRepository.findClientsByCompanyDomain(List.of("neviswealth"), PaginationParams.of(2, 0))
+                                        .getNextCursor();
+
+        assertThatThrownBy(() -> clientRepository.findClientsByCompanyDomain(List.of("nevis"),
+                                                                             PaginationParams.of(2, 0, cursor)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor was issued for a different query");
+    }
+
     @Test
     void findByEmailDomainWithOffsetBeyondResults() {
         clientRepository.save(Client.builder()
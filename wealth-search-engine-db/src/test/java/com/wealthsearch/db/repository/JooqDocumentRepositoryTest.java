@@ -4,17 +4,25 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.wealthsearch.db.config.JooqSettingsConfiguration;
+import com.wealthsearch.model.exception.BadRequestException;
 import com.wealthsearch.model.exception.EntityAlreadyExistsException;
 import com.wealthsearch.db.repository.support.PostgresContainerSupport;
 import com.wealthsearch.model.entity.Client;
 import com.wealthsearch.model.entity.Document;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import com.wealthsearch.model.entity.search.DocumentSearchCountMode;
+import com.wealthsearch.model.entity.search.DocumentSearchCursor;
 import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
+import com.wealthsearch.model.entity.search.DocumentSearchSort;
+import com.wealthsearch.model.entity.search.DocumentSearchView;
 import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
 import org.junit.jupiter.api.Test;
@@ -26,7 +34,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jooq.JooqTest;
 import org.springframework.context.annotation.Import;
 
-@JooqTest
+@JooqTest(properties = "search.documents-search.count-cap=3")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Import({
     JooqDocumentRepository.class,
@@ -36,6 +44,8 @@ import org.springframework.context.annotation.Import;
 @ImportAutoConfiguration(FlywayAutoConfiguration.class)
 class JooqDocumentRepositoryTest extends PostgresContainerSupport {
 
+    private static final DocumentSearchOptions OPTIONS = DocumentSearchOptions.defaults();
+
     @Autowired
     private DocumentRepository documentRepository;
 
@@ -112,7 +122,7 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
                                         .build());
 
         SearchResult<DocumentSearchHit> results =
-                documentRepository.searchByContent(Set.of(), PaginationParams.of(10, 0));
+                documentRepository.searchByContent(Set.of(), OPTIONS, PaginationParams.of(10, 0));
 
         assertThat(results.getResults()).isEmpty();
         assertThat(results.getTotalCount()).isZero();
@@ -127,7 +137,8 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
                                         .content("Some content")
                                         .build());
 
-        SearchResult<DocumentSearchHit> results = documentRepository.searchByContent(null, PaginationParams.of(10, 0));
+        SearchResult<DocumentSearchHit> results =
+                documentRepository.searchByContent(null, OPTIONS, PaginationParams.of(10, 0));
 
         assertThat(results.getResults()).isEmpty();
         assertThat(results.getTotalCount()).isZero();
@@ -153,7 +164,7 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
                                                             .build());
 
         SearchResult<DocumentSearchHit> results =
-                documentRepository.searchByContent(Set.of("wealth", "financial", "investment"),
+                documentRepository.searchByContent(Set.of("wealth", "financial", "investment"), OPTIONS,
                                                    PaginationParams.of(10, 0));
 
         assertThat(results.getTotalCount()).isEqualTo(3);
@@ -182,7 +193,7 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
                                                       .build());
 
         SearchResult<DocumentSearchHit> results =
-                documentRepository.searchByContent(Set.of("wealth"), PaginationParams.of(10, 0));
+                documentRepository.searchByContent(Set.of("wealth"), OPTIONS, PaginationParams.of(10, 0));
 
         assertThat(results.getResults()).hasSize(2);
         // Higher ranked should come first
@@ -210,10 +221,10 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
         }
 
         SearchResult<DocumentSearchHit> firstPage =
-                documentRepository.searchByContent(Set.of("wealth"), PaginationParams.of(2, 0));
+                documentRepository.searchByContent(Set.of("wealth"), OPTIONS, PaginationParams.of(2, 0));
 
         SearchResult<DocumentSearchHit> secondPage =
-                documentRepository.searchByContent(Set.of("wealth"), PaginationParams.of(2, 2));
+                documentRepository.searchByContent(Set.of("wealth"), OPTIONS, PaginationParams.of(2, 2));
 
         assertThat(firstPage.getTotalCount()).isEqualTo(5);
         assertThat(firstPage.getResults()).hasSize(2);
@@ -224,6 +235,59 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
         assertThat(firstPage.getResults()).isNotEqualTo(secondPage.getResults());
     }
 
+    @Test
+    void searchByContentWithCursorWalksAllPagesInRankOrder() {
+        var client = persistClient("cursor@neviswealth.com");
+
+        for (int i = 0; i < 5; i++) {
+            documentRepository.save(Document.builder()
+                                            .clientId(client.getId())
+                                            .title("Document " + i)
+                                            .content(i % 2 == 0 ? "Wealth wealth content" : "Wealth content")
+                                            .build());
+        }
+
+        List<UUID> expectedOrder = documentRepository.searchByContent(Set.of("wealth"), OPTIONS,
+                                                                      PaginationParams.of(10, 0))
+                                                     .getResults()
+                                                     .stream()
+                                                     .map(hit -> hit.getDocument()
+                                                                    .getId())
+                                                     .toList();
+
+        List<UUID> walkedOrder = new ArrayList<>();
+        SearchResult<DocumentSearchHit> page =
+                documentRepository.searchByContent(Set.of("wealth"), OPTIONS, PaginationParams.of(2, 0));
+        walkedOrder.addAll(page.getResults()
+                               .stream()
+                               .map(hit -> hit.getDocument()
+                                              .getId())
+                               .toList());
+
+        while (page.getNextCursor() != null) {
+            assertThat(DocumentSearchCursor.decode(page.getNextCursor())
+                                           .searchTerms()).containsExactly("wealth");
+            page = documentRepository.searchByContent(Set.of("wealth"), OPTIONS,
+                                                      PaginationParams.of(2, 0, page.getNextCursor()));
+
+            assertThat(page.getTotalCount()).isEqualTo(5);
+            walkedOrder.addAll(page.getResults()
+                                   .stream()
+                                   .map(hit -> hit.getDocument()
+                                                  .getId())
+                                   .toList());
+        }
+
+        assertThat(walkedOrder).containsExactlyElementsOf(expectedOrder);
+    }
+
+    @Test
+    void searchByContentRejectsMalformedCursor() {
+        assertThatThrownBy(() -> documentRepository.searchByContent(Set.of("wealth"), OPTIONS,
+                                                                    PaginationParams.of(2, 0, "not-a-cursor")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
     @Test
     void searchByContentWithOffsetBeyondResults() {
         var client = persistClient("offset@neviswealth.com");
@@ -234,7 +298,7 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
                                         .build());
 
         SearchResult<DocumentSearchHit> results =
-                documentRepository.searchByContent(Set.of("wealth"), PaginationParams.of(10, 100));
+                documentRepository.searchByContent(Set.of("wealth"), OPTIONS, PaginationParams.of(10, 100));
 
         assertThat(results.getTotalCount()).isEqualTo(1);
         assertThat(results.getResults()).isEmpty();
@@ -250,7 +314,7 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
                                         .build());
 
         SearchResult<DocumentSearchHit> results =
-                documentRepository.searchByContent(Set.of("wealth"), PaginationParams.of(10, 0));
+                documentRepository.searchByContent(Set.of("wealth"), OPTIONS, PaginationParams.of(10, 0));
 
         assertThat(results.getResults()).hasSize(1);
         DocumentSearchHit hit = results.getResults()
@@ -268,7 +332,7 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
                                         .build());
 
         SearchResult<DocumentSearchHit> results =
-                documentRepository.searchByContent(Set.of("J.P.", "Morgan"), PaginationParams.of(10, 0));
+                documentRepository.searchByContent(Set.of("J.P.", "Morgan"), OPTIONS, PaginationParams.of(10, 0));
 
         assertThat(results.getTotalCount()).isGreaterThan(0);
     }
@@ -283,12 +347,350 @@ class JooqDocumentRepositoryTest extends PostgresContainerSupport {
                                         .build());
 
         SearchResult<DocumentSearchHit> results =
-                documentRepository.searchByContent(Set.of("nonexistent", "terms"), PaginationParams.of(10, 0));
+                documentRepository.searchByContent(Set.of("nonexistent", "terms"), OPTIONS, PaginationParams.of(10, 0));
 
         assertThat(results.getTotalCount()).isZero();
         assertThat(results.getResults()).isEmpty();
     }
 
+    @Test
+    void searchByContentMatchesTitlesAndRanksThemAboveContentMatches() {
+        var client = persistClient("title@neviswealth.com");
+        var titleMatch = documentRepository.save(Document.builder()
+                                                         .clientId(client.getId())
+                                                         .title("Trust Deed")
+                                                         .content("Signed copy archived in the secure vault")
+                                                         .build());
+        var contentMatch = documentRepository.save(Document.builder()
+                                                           .clientId(client.getId())
+                                                           .title("Quarterly Report")
+                                                           .content("Beneficiaries listed in the family trust")
+                                                           .build());
+
+        SearchResult<DocumentSearchHit> results =
+                documentRepository.searchByContent(Set.of("trust"), OPTIONS, PaginationParams.of(10, 0));
+
+        assertThat(results.getTotalCount()).isEqualTo(2);
+        assertThat(results.getResults()).extracting(DocumentSearchHit::getDocument)
+                                        .extracting(Document::getId)
+                                        .containsExactly(titleMatch.getId(), contentMatch.getId());
+    }
+
+    @Test
+    void searchByContentWithClientFilterReturnsOnlyThoseClientsDocuments() {
+        var first = persistClient("first@neviswealth.com");
+        var second = persistClient("second@neviswealth.com");
+        var other = persistClient("other@neviswealth.com");
+        var firstDoc = documentRepository.save(Document.builder()
+                                                       .clientId(first.getId())
+                                                       .title("Wealth Plan")
+                                                       .content("Wealth plan for the first client")
+                                                       .build());
+        var secondDoc = documentRepository.save(Document.builder()
+                                                        .clientId(second.getId())
+                                                        .title("Wealth Plan")
+                                                        .content("Wealth plan for the second client")
+                                                        .build());
+        documentRepository.save(Document.builder()
+                                        .clientId(other.getId())
+                                        .title("Wealth Plan")
+                                        .content("Wealth plan for another client")
+                                        .build());
+
+        DocumentSearchOptions singleClient = DocumentSearchOptions.builder()
+                                                                  .clientIds(Set.of(first.getId()))
+                                                                  .build();
+        DocumentSearchOptions twoClients = DocumentSearchOptions.builder()
+                                                                .clientIds(Set.of(first.getId(), second.getId()))
+                                                                .build();
+
+        SearchResult<DocumentSearchHit> singleClientResults =
+                documentRepository.searchByContent(Set.of("wealth"), singleClient, PaginationParams.of(10, 0));
+        SearchResult<DocumentSearchHit> twoClientResults =
+                documentRepository.searchByContent(Set.of("wealth"), twoClients, PaginationParams.of(10, 0));
+
+        assertThat(singleClientResults.getTotalCount()).isEqualTo(1);
+        assertThat(singleClientResults.getResults()).extracting(DocumentSearchHit::getDocument)
+                                                    .extracting(Document::getId)
+                                                    .containsExactly(firstDoc.getId());
+        assertThat(twoClientResults.getTotalCount()).isEqualTo(2);
+        assertThat(twoClientResults.getResults()).extracting(DocumentSearchHit::getDocument)
+                                                 .extracting(Document::getId)
+                                                 .containsExactlyInAnyOrder(firstDoc.getId(), secondDoc.getId());
+    }
+
+    @Test
+    void searchByContentWithCreatedAtRangeReturnsOnlyDocumentsInRange() {
+        var client = persistClient("range@neviswealth.com");
+        OffsetDateTime quarterStart = OffsetDateTime.parse("2025-07-01T00:00:00Z");
+        OffsetDateTime quarterEnd = OffsetDateTime.parse("2025-10-01T00:00:00Z");
+        persistDocument(client, "Wealth review", quarterStart.minusDays(1));
+        var first = persistDocument(client, "Wealth review", quarterStart);
+        var last = persistDocument(client, "Wealth review", quarterEnd.minusSeconds(1));
+        persistDocument(client, "Wealth review", quarterEnd);
+
+        DocumentSearchOptions lastQuarter = DocumentSearchOptions.builder()
+                                                                 .createdFrom(quarterStart)
+                                                                 .createdTo(quarterEnd)
+                                                                 .build();
+
+        SearchResult<DocumentSearchHit> results =
+                documentRepository.searchByContent(Set.of("wealth"), lastQuarter, PaginationParams.of(10, 0));
+
+        assertThat(results.getTotalCount()).isEqualTo(2);
+        assertThat(results.getResults()).extracting(DocumentSearchHit::getDocument)
+                                        .extracting(Document::getId)
+                                        .containsExactlyInAnyOrder(first.getId(), last.getId());
+    }
+
+    @Test
+    void searchByContentSortedByRecencyWalksNewestFirstWithCursor() {
+        var client = persistClient("recent@neviswealth.com");
+        OffsetDateTime base = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        List<UUID> newestFirst = new ArrayList<>();
+        // the oldest document matches best, so relevance and recency disagree on the order
+        var oldest = persistDocument(client, "Wealth wealth wealth review", base);
+        for (int i = 4; i >= 1; i--) {
+            newestFirst.add(persistDocument(client, "Quarterly wealth review", base.plusDays(i)).getId());
+        }
+        newestFirst.add(oldest.getId());
+
+        DocumentSearchOptions recent = DocumentSearchOptions.builder()
+                                                            .sort(DocumentSearchSort.RECENT)
+                                                            .build();
+
+        List<UUID> walkedOrder = new ArrayList<>();
+        SearchResult<DocumentSearchHit> page =
+                documentRepository.searchByContent(Set.of("wealth"), recent, PaginationParams.of(2, 0));
+        walkedOrder.addAll(page.getResults()
+                               .stream()
+                               .map(hit -> hit.getDocument()
+                                              .getId())
+                               .toList());
+
+        while (page.getNextCursor() != null) {
+            page = documentRepository.searchByContent(Set.of("wealth"), recent,
+                                                      PaginationParams.of(2, 0, page.getNextCursor()));
+
+            assertThat(page.getTotalCount()).isEqualTo(5);
+            walkedOrder.addAll(page.getResults()
+                                   .stream()
+                                   .map(hit -> hit.getDocument()
+                                                  .getId())
+                                   .toList());
+        }
+
+        assertThat(walkedOrder).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void searchByContentRejectsCursorOfAnotherSortOrder() {
+        var client = persistClient("mixedsort@neviswealth.com");
+        for (int i = 0; i < 3; i++) {
+            persistDocument(client, "Wealth review " + i, OffsetDateTime.now(ZoneOffset.UTC)
+                                                                        .minusDays(i));
+        }
+
+        String relevanceCursor = documentRepository.searchByContent(Set.of("wealth"), OPTIONS,
+                                                                    PaginationParams.of(1, 0))
+                                                   .getNextCursor();
+        DocumentSearchOptions recent = DocumentSearchOptions.builder()
+                                                            .sort(DocumentSearchSort.RECENT)
+                                                            .build();
+
+        assertThatThrownBy(() -> documentRepository.searchByContent(Set.of("wealth"), recent,
+                                                                    PaginationParams.of(1, 0, relevanceCursor)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor was issued for a different sort order");
+    }
+
+    @Test
+    void searchByContentRejectsCursorOfAnotherTermSetOrClientFilter() {
+        var client = persistClient("boundcursor@neviswealth.com");
+        for (int i = 0; i < 3; i++) {
+            persistDocument(client, "Wealth pension review " + i, OffsetDateTime.now(ZoneOffset.UTC)
+                                                                                .minusDays(i));
+        }
+
+        String cursor = documentRepository.searchByContent(Set.of("wealth"), OPTIONS, PaginationParams.of(1, 0))
+                                          .getNextCursor();
+        DocumentSearchOptions otherClient = DocumentSearchOptions.builder()
+                                                                 .clientIds(Set.of(UUID.randomUUID()))
+                                                                 .build();
+
+        assertThatThrownBy(() -> documentRepository.searchByContent(Set.of("wealth", "pension"), OPTIONS,
+                                                                    PaginationParams.of(1, 0, cursor)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor was issued for a different query");
+        assertThatThrownBy(() -> documentRepository.searchByContent(Set.of("wealth"), otherClient,
+                                                                    PaginationParams.of(1, 0, cursor)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor was issued for a different query");
+    }
+
+    @Test
+    void searchByContentKeepsCursorAcrossViews() {
+        var client = persistClient("viewcursor@neviswealth.com");
+        for (int i = 0; i < 3; i++) {
+            persistDocument(client, "Wealth review " + i, OffsetDateTime.now(ZoneOffset.UTC)
+                                                                        .minusDays(i));
+        }
+
+        String cursor = documentRepository.searchByContent(Set.of("wealth"), OPTIONS, PaginationParams.of(1, 0))
+                                          .getNextCursor();
+        DocumentSearchOptions full = DocumentSearchOptions.builder()
+                                                          .view(DocumentSearchView.FULL)
+                                                          .build();
+
+        SearchResult<DocumentSearchHit> next =
+                documentRepository.searchByContent(Set.of("wealth"), full, PaginationParams.of(1, 0, cursor));
+
+        assertThat(next.getResults()).hasSize(1);
+        assertThat(next.getTotalCount()).isEqualTo(3);
+    }
+
+    @Test
+    void searchByContentWithCappedCountStopsAtCapAndStillPagesThroughAllMatches() {
+        var client = persistClient("capped@neviswealth.com");
+        for (int i = 0; i < 5; i++) {
+            persistDocument(client, "Wealth review " + i, OffsetDateTime.now(ZoneOffset.UTC)
+                                                                        .minusDays(i));
+        }
+        DocumentSearchOptions capped = DocumentSearchOptions.builder()
+                                                            .countMode(DocumentSearchCountMode.CAPPED)
+                                                            .build();
+
+        SearchResult<DocumentSearchHit> page =
+                documentRepository.searchByContent(Set.of("wealth"), capped, PaginationParams.of(2, 0));
+
+        assertThat(page.getTotalCount()).isEqualTo(3);
+        assertThat(page.isTotalCountExact()).isFalse();
+
+        Set<UUID> walked = new HashSet<>();
+        page.getResults()
+            .forEach(hit -> walked.add(hit.getDocument()
+                                          .getId()));
+        while (page.getNextCursor() != null) {
+            page = documentRepository.searchByContent(Set.of("wealth"), capped,
+                                                      PaginationParams.of(2, 0, page.getNextCursor()));
+
+            assertThat(page.isTotalCountExact()).isFalse();
+            page.getResults()
+                .forEach(hit -> walked.add(hit.getDocument()
+                                              .getId()));
+        }
+
+        assertThat(walked).hasSize(5);
+    }
+
+    @Test
+    void searchByContentWithCappedCountBelowCapIsExact() {
+        var client = persistClient("belowcap@neviswealth.com");
+        persistDocument(client, "Wealth review", OffsetDateTime.now(ZoneOffset.UTC));
+        persistDocument(client, "Wealth plan", OffsetDateTime.now(ZoneOffset.UTC));
+        DocumentSearchOptions capped = DocumentSearchOptions.builder()
+                                                            .countMode(DocumentSearchCountMode.CAPPED)
+                                                            .build();
+
+        SearchResult<DocumentSearchHit> page =
+                documentRepository.searchByContent(Set.of("wealth"), capped, PaginationParams.of(1, 0));
+
+        assertThat(page.getTotalCount()).isEqualTo(2);
+        assertThat(page.isTotalCountExact()).isTrue();
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void searchByContentWithEstimatedCountIsFlaggedInexact() {
+        var client = persistClient("estimate@neviswealth.com");
+        for (int i = 0; i < 5; i++) {
+            persistDocument(client, "Wealth review " + i, OffsetDateTime.now(ZoneOffset.UTC)
+                                                                        .minusDays(i));
+        }
+        DocumentSearchOptions estimate = DocumentSearchOptions.builder()
+                                                              .countMode(DocumentSearchCountMode.ESTIMATE)
+                                                              .build();
+
+        SearchResult<DocumentSearchHit> page =
+                documentRepository.searchByContent(Set.of("wealth"), estimate, PaginationParams.of(2, 0));
+
+        assertThat(page.getResults()).hasSize(2);
+        assertThat(page.getTotalCount()).isGreaterThanOrEqualTo(2);
+        assertThat(page.isTotalCountExact()).isFalse();
+    }
+
+    @Test
+    void searchByContentWithInexactCountModeReportsExactTotalForLastPage() {
+        var client = persistClient("lastpage@neviswealth.com");
+        persistDocument(client, "Wealth review", OffsetDateTime.now(ZoneOffset.UTC));
+        persistDocument(client, "Wealth plan", OffsetDateTime.now(ZoneOffset.UTC));
+        DocumentSearchOptions estimate = DocumentSearchOptions.builder()
+                                                              .countMode(DocumentSearchCountMode.ESTIMATE)
+                                                              .build();
+
+        SearchResult<DocumentSearchHit> page =
+                documentRepository.searchByContent(Set.of("wealth"), estimate, PaginationParams.of(10, 0));
+
+        assertThat(page.getTotalCount()).isEqualTo(2);
+        assertThat(page.isTotalCountExact()).isTrue();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void searchByContentInSnippetViewReturnsHighlightedFragmentInsteadOfContent() {
+        var client = persistClient("snippet@neviswealth.com");
+        documentRepository.save(Document.builder()
+                                        .clientId(client.getId())
+                                        .title("Quarterly Report")
+                                        .content("The committee discussed long-term wealth strategies for the family trust")
+                                        .build());
+
+        SearchResult<DocumentSearchHit> results =
+                documentRepository.searchByContent(Set.of("wealth"), OPTIONS, PaginationParams.of(10, 0));
+
+        assertThat(results.getResults()).hasSize(1);
+        DocumentSearchHit hit = results.getResults()
+                                       .getFirst();
+        assertThat(hit.getDocument()
+                      .getContent()).isNull();
+        assertThat(hit.getDocument()
+                      .getTitle()).isEqualTo("Quarterly Report");
+        assertThat(hit.getSnippet()).contains("<b>wealth</b>");
+    }
+
+    @Test
+    void searchByContentInFullViewReturnsContentWithoutSnippet() {
+        var client = persistClient("full@neviswealth.com");
+        documentRepository.save(Document.builder()
+                                        .clientId(client.getId())
+                                        .title("Quarterly Report")
+                                        .content("Discussed wealth strategies")
+                                        .build());
+
+        DocumentSearchOptions fullView = DocumentSearchOptions.builder()
+                                                              .view(DocumentSearchView.FULL)
+                                                              .build();
+
+        SearchResult<DocumentSearchHit> results =
+                documentRepository.searchByContent(Set.of("wealth"), fullView, PaginationParams.of(10, 0));
+
+        assertThat(results.getResults()).hasSize(1);
+        DocumentSearchHit hit = results.getResults()
+                                       .getFirst();
+        assertThat(hit.getDocument()
+                      .getContent()).isEqualTo("Discussed wealth strategies");
+        assertThat(hit.getSnippet()).isNull();
+    }
+
+    private Document persistDocument(Client client, String content, OffsetDateTime createdAt) {
+        return documentRepository.save(Document.builder()
+                                               .clientId(client.getId())
+                                               .title("Report")
+                                               .content(content)
+                                               .createdAt(createdAt)
+                                               .build());
+    }
+
     private Client persistClient(String email) {
         return clientRepository.save(Client.builder()
                                            .firstName("Client")
@@ -0,0 +1,85 @@
+package com.wealthsearch.db.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wealthsearch.db.config.JooqSettingsConfiguration;
+import com.wealthsearch.db.repository.support.PostgresContainerSupport;
+import com.wealthsearch.model.entity.QueryExpansion;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jooq.JooqTest;
+import org.springframework.context.annotation.Import;
+
+@JooqTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+    JooqQueryExpansionRepository.class,
+    JooqSettingsConfiguration.class
+})
+@ImportAutoConfiguration(FlywayAutoConfiguration.class)
+class JooqQueryExpansionRepositoryTest extends PostgresContainerSupport {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.now(ZoneOffset.UTC)
+                                                            .truncatedTo(ChronoUnit.MILLIS);
+
+    @Autowired
+    private QueryExpansionRepository queryExpansionRepository;
+
+    @Test
+    void upsertAllStoresBatchReadableByKey() {
+        queryExpansionRepository.upsertAll(List.of(expansion("tax return", "llama", "[\"tax filing\"]", NOW.plusDays(1)),
+                                                   expansion("wealth", "llama", "[\"assets\"]", NOW.plusDays(1))));
+
+        assertThat(queryExpansionRepository.findUnexpired("tax return", "llama", "v1", NOW)).get()
+                                                                                           .extracting(
+                                                                                                   QueryExpansion::getTerms)
+                                                                                           .isEqualTo("[\"tax filing\"]");
+        assertThat(queryExpansionRepository.findUnexpired("wealth", "llama", "v1", NOW)).isPresent();
+        assertThat(queryExpansionRepository.findUnexpired("wealth", "mistral", "v1", NOW)).isEmpty();
+        assertThat(queryExpansionRepository.findUnexpired("wealth", "llama", "v2", NOW)).isEmpty();
+    }
+
+    @Test
+    void upsertAllReplacesStoredExpansion() {
+        queryExpansionRepository.upsertAll(List.of(expansion("wealth", "llama", "[\"assets\"]", NOW.plusDays(1))));
+        queryExpansionRepository.upsertAll(List.of(expansion("wealth", "llama", "[\"holdings\"]", NOW.plusDays(2))));
+
+        QueryExpansion stored = queryExpansionRepository.findUnexpired("wealth", "llama", "v1", NOW)
+                                                        .orElseThrow();
+
+        assertThat(stored.getTerms()).isEqualTo("[\"holdings\"]");
+        assertThat(stored.getExpiresAt()).isEqualTo(NOW.plusDays(2));
+    }
+
+    @Test
+    void findUnexpiredSkipsAndDeleteExpiredRemovesExpiredRows() {
+        queryExpansionRepository.upsertAll(List.of(expansion("expired", "llama", "[]", NOW.minusMinutes(1)),
+                                                   expansion("live", "llama", "[]", NOW.plusMinutes(1))));
+
+        assertThat(queryExpansionRepository.findUnexpired("expired", "llama", "v1", NOW)).isEmpty();
+        assertThat(queryExpansionRepository.deleteExpired(NOW)).isEqualTo(1);
+        assertThat(queryExpansionRepository.findUnexpired("live", "llama", "v1", NOW)).isPresent();
+    }
+
+    private static QueryExpansion expansion(String query, String model, String terms, OffsetDateTime expiresAt) {
+        return QueryExpansion.builder()
+                             .normalizedQuery(query)
+                             .model(model)
+                             .promptVersion("v1")
+                             .terms(terms)
+                             .createdAt(NOW)
+                             .expiresAt(expiresAt)
+                             .build();
+    }
+
+    @SpringBootConfiguration
+    static class TestConfig {}
+}
@@ -1,5 +1,7 @@
 package com.wealthsearch.db.repository.support;
 
+import java.util.Map;
+
 import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.BeforeAll;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -25,6 +27,7 @@ public abstract class PostgresContainerSupport {
         registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
         registry.add("spring.jooq.sql-dialect", () -> "POSTGRES");
         registry.add("spring.flyway.locations", () -> "classpath:db/migration");
+        registry.add("spring.flyway.postgresql.transactional-lock", () -> "false");
     }
 
     @BeforeAll
@@ -32,6 +35,7 @@ public abstract class PostgresContainerSupport {
         Flyway flyway = Flyway.configure()
             .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
             .locations("classpath:db/migration").cleanDisabled(false)
+            .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
             .load();
         flyway.clean();
         flyway.migrate();
@@ -0,0 +1,52 @@
+package com.wealthsearch.ollama;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.wealthsearch.model.exception.OllamaOverloadedException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Why a query expansion failed; each reason is negatively cached for its own time and counted under its own tag.
+ */
+@Getter
+@RequiredArgsConstructor
+enum ExpansionFailure {
+    TIMEOUT("timeout"),
+    PARSE_FAILURE("parse_failure"),
+    CIRCUIT_OPEN("circuit_open"),
+    REJECTED("rejected"),
+    ERROR("error");
+
+    private final String tag;
+
+    static ExpansionFailure classify(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CallNotPermittedException) {
+                return CIRCUIT_OPEN;
+            }
+            if (cause instanceof OllamaOverloadedException) {
+                return REJECTED;
+            }
+            if (cause instanceof JsonProcessingException) {
+                return PARSE_FAILURE;
+            }
+            if (isTimeout(cause)) {
+                return TIMEOUT;
+            }
+        }
+        return ERROR;
+    }
+
+    private static boolean isTimeout(Throwable cause) {
+        // netty's read/write timeouts do not share a JDK supertype, they only follow the naming
+        return cause instanceof TimeoutException || cause instanceof SocketTimeoutException
+                || cause instanceof HttpTimeoutException || cause.getClass()
+                                                                 .getSimpleName()
+                                                                 .endsWith("TimeoutException");
+    }
+}
@@ -0,0 +1,8 @@
+package com.wealthsearch.ollama;
+
+/**
+ * Identifies one expansion: the normalized query as sent to the model, the model and the prompt template version, so
+ * changing either of the latter two never serves terms generated under the old ones.
+ */
+public record ExpansionKey(String query, String model, String promptVersion) {
+}
@@ -0,0 +1,187 @@
+package com.wealthsearch.ollama;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wealthsearch.db.repository.QueryExpansionRepository;
+import com.wealthsearch.model.entity.QueryExpansion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Postgres tier beneath the in-memory expansion cache, shared by all nodes. Reads go straight to the table; writes are
+ * queued and flushed in batches by a background thread, which also purges expired rows. Store failures only cost the
+ * L2 hit, they never fail an expansion.
+ */
+@Slf4j
+@Component
+public class QueryExpansionStore {
+
+    static final String METRIC = "search.expansions.store";
+
+    private static final TypeReference<Set<String>> TERMS_TYPE = new TypeReference<>() {};
+
+    private final QueryExpansionRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Duration ttl;
+
+    private final int batchSize;
+
+    private final int maxPendingWrites;
+
+    // keyed so that repeated writes of one expansion collapse into one row of the next batch
+    private final Map<ExpansionKey, Set<String>> pendingWrites = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter written;
+
+    private final Counter dropped;
+
+    public QueryExpansionStore(QueryExpansionRepository repository, MeterRegistry meterRegistry,
+            @Value("${semantic-search.expansion-store.ttl:7d}") Duration ttl,
+            @Value("${semantic-search.expansion-store.flush-interval:2s}") Duration flushInterval,
+            @Value("${semantic-search.expansion-store.batch-size:100}") int batchSize,
+            @Value("${semantic-search.expansion-store.max-pending-writes:1000}") int maxPendingWrites,
+            @Value("${semantic-search.expansion-store.purge-interval:1h}") Duration purgeInterval) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPendingWrites = maxPendingWrites;
+
+        this.hits = operationCounter(meterRegistry, "hit");
+        this.misses = operationCounter(meterRegistry, "miss");
+        this.written = operationCounter(meterRegistry, "written");
+        this.dropped = operationCounter(meterRegistry, "dropped");
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("expansion-store-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.scheduler.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                                              TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::purgeExpired, purgeInterval.toMillis(), purgeInterval.toMillis(),
+                                              TimeUnit.MILLISECONDS);
+    }
+
+    public Optional<Set<String>> find(ExpansionKey key) {
+        try {
+            Optional<Set<String>> terms = repository.findUnexpired(key.query(), key.model(), key.promptVersion(),
+                                                                   OffsetDateTime.now())
+                                                    .map(this::readTerms);
+            (terms.isPresent() ? hits : misses).increment();
+            return terms;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read stored expansion of '{}': {}", key.query(), e.getMessage());
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Queues the expansion for the next batch. When the queue is full the write is dropped, the expansion then lives
+     * only in the in-memory cache of this node.
+     */
+    public void save(ExpansionKey key, Set<String> terms) {
+        if (pendingWrites.size() >= maxPendingWrites && !pendingWrites.containsKey(key)) {
+            dropped.increment();
+            return;
+        }
+        pendingWrites.put(key, terms);
+    }
+
+    public void flush() {
+        while (!pendingWrites.isEmpty()) {
+            List<QueryExpansion> batch = drainBatch();
+            try {
+                repository.upsertAll(batch);
+                written.increment(batch.size());
+            } catch (RuntimeException e) {
+                log.warn("Failed to store {} query expansions: {}", batch.size(), e.getMessage());
+                dropped.increment(batch.size());
+                return;
+            }
+        }
+    }
+
+    public void purgeExpired() {
+        try {
+            int purged = repository.deleteExpired(OffsetDateTime.now());
+            log.debug("Purged {} expired query expansions", purged);
+        } catch (RuntimeException e) {
+            log.warn("Failed to purge expired query expansions: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    private List<QueryExpansion> drainBatch() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<QueryExpansion> batch = new ArrayList<>(batchSize);
+        Iterator<Map.Entry<ExpansionKey, Set<String>>> pending = pendingWrites.entrySet()
+                                                                              .iterator();
+        while (pending.hasNext() && batch.size() < batchSize) {
+            Map.Entry<ExpansionKey, Set<String>> entry = pending.next();
+            pending.remove();
+            ExpansionKey key = entry.getKey();
+            batch.add(QueryExpansion.builder()
+                                    .normalizedQuery(key.query())
+                                    .model(key.model())
+                                    .promptVersion(key.promptVersion())
+                                    .terms(writeTerms(entry.getValue()))
+                                    .createdAt(now)
+                                    .expiresAt(now.plus(ttl))
+                                    .build());
+        }
+        return batch;
+    }
+
+    private Set<String> readTerms(QueryExpansion expansion) {
+        try {
+            return Set.copyOf(objectMapper.readValue(expansion.getTerms(), TERMS_TYPE));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored expansion terms are not a JSON array", e);
+        }
+    }
+
+    private String writeTerms(Set<String> terms) {
+        try {
+            return objectMapper.writeValueAsString(terms);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize expansion terms", e);
+        }
+    }
+
+    private static Counter operationCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC)
+                      .description("Reads and writes of the shared query expansion table")
+                      .tag("outcome", outcome)
+                      .register(meterRegistry);
+    }
+}
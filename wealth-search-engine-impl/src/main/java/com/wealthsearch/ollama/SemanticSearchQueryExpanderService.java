@@ -1,13 +1,20 @@
 package com.wealthsearch.ollama;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
 import com.wealthsearch.api.ollama.SemanticSearchQueryExpander;
 import com.wealthsearch.api.ollama.client.OllamaClient;
 import com.wealthsearch.model.ollama.FtsQueryExpandResult;
 import com.wealthsearch.ollama.client.confiuration.OllamaChatRequestProperties;
 import com.wealthsearch.utils.SearchQueryUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.prompt.Prompt;
@@ -15,26 +22,50 @@ import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.ollama.api.OllamaOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileCopyUtils;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.LinkedHashSet;
+import java.util.EnumMap;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SemanticSearchQueryExpanderService implements SemanticSearchQueryExpander {
 
+    static final String CACHE_NAME = "search.expansions";
+
+    static final String FAILURE_METRIC = "search.expansion.failures";
+
+    static final String NEGATIVE_HIT_METRIC = "search.expansion.negative-cache.hits";
+
+    private static final String REASON_TAG = "reason";
+
     private final OllamaClient ollamaClient;
 
     private final OllamaChatRequestProperties chatRequestProperties;
 
+    private final MeterRegistry meterRegistry;
+
+    private final QueryExpansionStore expansionStore;
+
     @Value("${semantic-search.prompts.synonym-path}")
     private Resource synonymPromptResource;
 
@@ -47,25 +78,146 @@ public class SemanticSearchQueryExpanderService implements SemanticSearchQueryEx
     @Value("${semantic-search.synonym-cache.expire-after-minutes:10}")
     private long cacheExpireAfterMinutes;
 
+    @Value("${semantic-search.synonym-cache.refresh-after-minutes:5}")
+    private long cacheRefreshAfterMinutes;
+
+    @Value("${semantic-search.synonym-cache.refresh-threads:2}")
+    private int cacheRefreshThreads;
+
+    @Value("${semantic-search.expansion-budget:300ms}")
+    private Duration expansionBudget;
+
+    @Value("${semantic-search.max-concurrent-expansions:8}")
+    private int maxConcurrentExpansions;
+
+    @Value("${semantic-search.negative-cache.maximum-size:1024}")
+    private int negativeCacheMaximumSize;
+
+    @Value("${semantic-search.negative-cache.timeout-ttl:30s}")
+    private Duration timeoutTtl;
+
+    @Value("${semantic-search.negative-cache.parse-failure-ttl:5m}")
+    private Duration parseFailureTtl;
+
+    @Value("${semantic-search.negative-cache.circuit-open-ttl:10s}")
+    private Duration circuitOpenTtl;
+
+    @Value("${semantic-search.negative-cache.rejected-ttl:2s}")
+    private Duration rejectedTtl;
+
+    @Value("${semantic-search.negative-cache.error-ttl:15s}")
+    private Duration errorTtl;
+
     private PromptTemplate promptTemplate;
 
-    private Cache<String, Set<String>> expansionCache;
+    private String promptVersion;
+
+    private Ticker ticker = Ticker.systemTicker();
+
+    private ThreadPoolExecutor expansionExecutor;
+
+    private ThreadPoolExecutor refreshExecutor;
+
+    private AsyncLoadingCache<ExpansionKey, Set<String>> expansionCache;
+
+    private Cache<ExpansionKey, ExpansionFailure> failedExpansions;
 
     @PostConstruct
     public void loadResources() {
         loadPromptTemplate();
+        initializeExecutor();
         initializeCache();
+        initializeNegativeCache();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expansionExecutor.shutdownNow();
+        refreshExecutor.shutdownNow();
     }
 
+    /**
+     * Waits at most the expansion budget for the expanded terms, see {@link #expandQueryWithSynonymsAsync(String)}.
+     * A generation that takes longer keeps running and lands in the cache, while this caller gets the original
+     * query; a failed generation also gives the original query.
+     */
     @Override
     public Set<String> expandQueryWithSynonyms(String query) {
         try {
-            return expansionCache.get(query, this::fetchSynonymExpansions);
-        } catch (Exception e) {
+            return expandQueryWithSynonymsAsync(query).get(expansionBudget.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.info("Expansion of '{}' exceeded the {} budget, finishing in background", query, expansionBudget);
+            return Set.of(query);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            return Set.of(query);
+        } catch (ExecutionException | RuntimeException e) {
             return Set.of(query);
         }
     }
 
+    /**
+     * Concurrent callers of the same query share one generation. A query whose last generation failed gets the
+     * original query without calling Ollama until the negative entry for that failure reason expires. Queries that
+     * normalize to the same text share one entry. Entries older than the refresh interval are still served while
+     * they are regenerated in the background. A miss of the in-memory cache reads the shared expansion store before
+     * calling Ollama.
+     */
+    @Override
+    public CompletableFuture<Set<String>> expandQueryWithSynonymsAsync(String query) {
+        String normalizedQuery = SearchQueryUtils.normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return CompletableFuture.completedFuture(Set.of(query));
+        }
+
+        ExpansionKey key = new ExpansionKey(normalizedQuery, chatModel, promptVersion);
+        ExpansionFailure recentFailure = failedExpansions.getIfPresent(key);
+        if (recentFailure != null) {
+            meterRegistry.counter(NEGATIVE_HIT_METRIC, REASON_TAG, recentFailure.getTag())
+                         .increment();
+            return CompletableFuture.completedFuture(Set.of(query));
+        }
+
+        try {
+            return expansionCache.get(key)
+                                 .thenApply(terms -> withQuery(terms, query));
+        } catch (RuntimeException e) {
+            // a generation rejected by the bounded pool never reaches the cache
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // the cached terms carry the normalized query, the caller's own spelling is always searched alongside
+    private static Set<String> withQuery(Set<String> terms, String query) {
+        if (terms.contains(query)) {
+            return terms;
+        }
+        Set<String> withQuery = new LinkedHashSet<>(terms);
+        withQuery.add(query);
+        return Set.copyOf(withQuery);
+    }
+
+    private CompletableFuture<Set<String>> loadExpansion(ExpansionKey key) {
+        return CompletableFuture.supplyAsync(() -> expansionStore.find(key)
+                                                                 .orElseGet(() -> generateAndStore(key)),
+                                             expansionExecutor)
+                                .whenComplete((terms, failure) -> {
+                                    if (failure != null) {
+                                        rememberFailure(key, failure);
+                                    }
+                                });
+    }
+
+    private void rememberFailure(ExpansionKey key, Throwable failure) {
+        ExpansionFailure reason = ExpansionFailure.classify(failure);
+        log.warn("Expansion of '{}' failed ({}): {}", key.query(), reason.getTag(), failure.getMessage());
+
+        meterRegistry.counter(FAILURE_METRIC, REASON_TAG, reason.getTag())
+                     .increment();
+        failedExpansions.put(key, reason);
+    }
+
     private Set<String> fetchSynonymExpansions(String query) {
         OllamaOptions options = this.buildOllamaRequestWithQuery();
         Prompt prompt = promptTemplate.create(Map.of("QUERY", query), options);
@@ -101,21 +253,113 @@ public class SemanticSearchQueryExpanderService implements SemanticSearchQueryEx
     private void loadPromptTemplate() {
         try (InputStreamReader reader =
                 new InputStreamReader(synonymPromptResource.getInputStream(), StandardCharsets.UTF_8)) {
-            this.promptTemplate = new PromptTemplate(FileCopyUtils.copyToString(reader));
+            String template = FileCopyUtils.copyToString(reader);
+            this.promptTemplate = new PromptTemplate(template);
+            this.promptVersion = versionOf(template);
 
         } catch (IOException ex) {
             throw new IllegalStateException("Failed to load synonym expansion prompt", ex);
         }
     }
 
+    private static String versionOf(String template) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                                         .digest(template.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of()
+                            .formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    // a failed refresh keeps serving the previous terms, so it is neither remembered nor counted as a failure
+    private CompletableFuture<Set<String>> reloadExpansion(ExpansionKey key) {
+        return CompletableFuture.supplyAsync(() -> generateAndStore(key), refreshExecutor);
+    }
+
+    private Set<String> generateAndStore(ExpansionKey key) {
+        Set<String> terms = fetchSynonymExpansions(key.query());
+        expansionStore.save(key, terms);
+        return terms;
+    }
+
+    private void initializeExecutor() {
+        // generations beyond the limit are rejected rather than queued behind slow ones, the caller gets its query;
+        // the pools only run generations, cache maintenance stays on Caffeine's default executor
+        this.expansionExecutor = boundedExecutor("synonym-expansion-", maxConcurrentExpansions);
+        // a rejected refresh is retried by the next read of the entry
+        this.refreshExecutor = boundedExecutor("synonym-refresh-", cacheRefreshThreads);
+    }
+
+    private static ThreadPoolExecutor boundedExecutor(String threadNamePrefix, int threads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        int poolSize = Math.max(1, threads);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                                                             new SynchronousQueue<>(), threadFactory,
+                                                             new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     private void initializeCache() {
         Caffeine<Object, Object> builder = Caffeine.newBuilder()
-                                                   .maximumSize(Math.max(1, cacheMaximumSize));
+                                                   .maximumSize(Math.max(1, cacheMaximumSize))
+                                                   .ticker(ticker)
+                                                   .recordStats();
 
         if (cacheExpireAfterMinutes > 0) {
             builder = builder.expireAfterWrite(Duration.ofMinutes(cacheExpireAfterMinutes));
         }
+        if (cacheRefreshAfterMinutes > 0) {
+            builder = builder.refreshAfterWrite(Duration.ofMinutes(cacheRefreshAfterMinutes));
+        }
+
+        this.expansionCache = builder.buildAsync(new AsyncCacheLoader<>() {
+            @Override
+            public CompletableFuture<Set<String>> asyncLoad(ExpansionKey key, Executor executor) {
+                return loadExpansion(key);
+            }
+
+            @Override
+            public CompletableFuture<Set<String>> asyncReload(ExpansionKey key, Set<String> oldValue,
+                    Executor executor) {
+                return reloadExpansion(key);
+            }
+        });
+        CaffeineCacheMetrics.monitor(meterRegistry, expansionCache, CACHE_NAME);
+    }
+
+    private void initializeNegativeCache() {
+        Map<ExpansionFailure, Long> ttlNanos = new EnumMap<>(ExpansionFailure.class);
+        ttlNanos.put(ExpansionFailure.TIMEOUT, timeoutTtl.toNanos());
+        ttlNanos.put(ExpansionFailure.PARSE_FAILURE, parseFailureTtl.toNanos());
+        ttlNanos.put(ExpansionFailure.CIRCUIT_OPEN, circuitOpenTtl.toNanos());
+        ttlNanos.put(ExpansionFailure.REJECTED, rejectedTtl.toNanos());
+        ttlNanos.put(ExpansionFailure.ERROR, errorTtl.toNanos());
+
+        this.failedExpansions = Caffeine.newBuilder()
+                                        .maximumSize(Math.max(1, negativeCacheMaximumSize))
+                                        .expireAfter(new Expiry<ExpansionKey, ExpansionFailure>() {
+                                            @Override
+                                            public long expireAfterCreate(ExpansionKey key, ExpansionFailure reason,
+                                                    long currentTime) {
+                                                return ttlNanos.get(reason);
+                                            }
+
+                                            @Override
+                                            public long expireAfterUpdate(ExpansionKey key, ExpansionFailure reason,
+                                                    long currentTime, long currentDuration) {
+                                                return ttlNanos.get(reason);
+                                            }
 
-        this.expansionCache = builder.build();
+                                            @Override
+                                            public long expireAfterRead(ExpansionKey key, ExpansionFailure reason,
+                                                    long currentTime, long currentDuration) {
+                                                return currentDuration;
+                                            }
+                                        })
+                                        .build();
     }
 }
@@ -0,0 +1,119 @@
+package com.wealthsearch.ollama.client;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps in-flight calls at a limit that follows observed latency, in the manner of a gradient limiter: the limit is
+ * scaled by the ratio of the long-term average latency to the latest sample, so it shrinks as soon as calls slow down
+ * (a queue is building up on the server) and grows by a small headroom while latency holds. Failed calls back the
+ * limit off multiplicatively. Calls beyond the limit are rejected immediately instead of waiting.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // the long-term average follows roughly this many samples, so a sustained slowdown is only slowly taken as normal
+    private static final int LONG_WINDOW = 600;
+
+    // latency may grow by this factor before the limit is cut
+    private static final double TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double limit;
+
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(current + 1));
+            }
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * 2.0 / (LONG_WINDOW + 1);
+        }
+        // once the backlog has drained, let the average come back down faster than the window would
+        if (longRttNanos > 2.0 * rttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        // the limit was not what held calls back, latency says nothing about whether it may grow
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    private synchronized void onDropped() {
+        limit = clamp(limit * BACKOFF_RATIO);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    /**
+     * One admitted call. Exactly one of the completion methods must be called.
+     */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+
+        private final int inFlightAtStart;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void onSuccess() {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+
+        public void onFailure() {
+            inFlight.decrementAndGet();
+            onDropped();
+        }
+
+        /**
+         * The call never reached the server, e.g. the circuit breaker refused it.
+         */
+        public void onIgnore() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
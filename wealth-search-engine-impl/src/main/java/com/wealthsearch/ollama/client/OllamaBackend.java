@@ -0,0 +1,107 @@
+package com.wealthsearch.ollama.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+
+/**
+ * One Ollama instance: its chat client and circuit breaker, the calls it is serving and whether it is ejected from
+ * routing after consecutive failures.
+ */
+final class OllamaBackend {
+
+    private final String name;
+
+    private final ChatClient chatClient;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private int consecutiveFailures;
+
+    private int ejections;
+
+    private long ejectedUntilNanos;
+
+    private boolean ejected;
+
+    OllamaBackend(String name, ChatClient chatClient, CircuitBreaker circuitBreaker) {
+        this.name = name;
+        this.chatClient = chatClient;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @param cancelled tells whether the caller gave up on the call; a call failing after that does not count
+     *                  against the circuit breaker
+     */
+    String call(Prompt prompt, BooleanSupplier cancelled) {
+        circuitBreaker.acquirePermission();
+        long startNanos = System.nanoTime();
+        outstanding.incrementAndGet();
+        try {
+            String content = chatClient.prompt(prompt)
+                                       .call()
+                                       .content();
+            circuitBreaker.onSuccess(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            return content;
+        } catch (RuntimeException ex) {
+            if (cancelled.getAsBoolean()) {
+                circuitBreaker.releasePermission();
+            } else {
+                circuitBreaker.onError(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS, ex);
+            }
+            throw ex;
+        } finally {
+            outstanding.decrementAndGet();
+        }
+    }
+
+    synchronized boolean isAvailable(long nowNanos) {
+        if (ejected && nowNanos - ejectedUntilNanos >= 0) {
+            ejected = false;
+        }
+        return !ejected && circuitBreaker.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    synchronized boolean isEjected() {
+        return ejected;
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        ejections = 0;
+    }
+
+    /**
+     * @return {@code true} when this failure ejected the backend; each ejection in a row lasts one base time longer
+     */
+    synchronized boolean onFailure(long nowNanos, int ejectAfterFailures, long baseEjectionNanos,
+            long maxEjectionNanos) {
+        if (ejected || ++consecutiveFailures < ejectAfterFailures) {
+            return false;
+        }
+
+        consecutiveFailures = 0;
+        ejections++;
+        ejected = true;
+        ejectedUntilNanos = nowNanos + Math.min(maxEjectionNanos, baseEjectionNanos * ejections);
+        return true;
+    }
+}
@@ -0,0 +1,233 @@
+package com.wealthsearch.ollama.client;
+
+import com.wealthsearch.ollama.client.confiuration.OllamaBackendProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static com.wealthsearch.utils.ResilienceConfigurationHelper.configureCircuitBreakerEvents;
+
+/**
+ * Spreads Ollama calls over the configured instances, each call going to the available backend with the fewest
+ * outstanding requests (ties rotate). A backend failing several calls in a row is ejected from routing for a while,
+ * and a backend whose circuit breaker is open is skipped; when no backend is available the calls still go to the
+ * least loaded one rather than failing outright.
+ */
+@Slf4j
+@Component
+public class OllamaBackendPool {
+
+    static final String OUTSTANDING_METRIC = "ollama.client.backend.outstanding";
+
+    static final String AVAILABLE_METRIC = "ollama.client.backend.available";
+
+    static final String REQUESTS_METRIC = "ollama.client.backend.requests";
+
+    static final String EJECTIONS_METRIC = "ollama.client.backend.ejections";
+
+    private final List<OllamaBackend> backends;
+
+    private final int ejectAfterFailures;
+
+    private final long baseEjectionNanos;
+
+    private final long maxEjectionNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger nextStart = new AtomicInteger();
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public OllamaBackendPool(OllamaBackendProperties properties,
+            @Value("${spring.ai.ollama.base-url:http://localhost:11434}") String defaultBaseUrl,
+            OllamaChatModel defaultChatModel, ObjectProvider<RestClient.Builder> restClientBuilder,
+            ObjectProvider<WebClient.Builder> webClientBuilder, ObjectProvider<ObservationRegistry> observationRegistry,
+            CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry) {
+        this(properties, defaultBaseUrl, baseUrl -> {
+            // every backend talks through the customized (pooled) HTTP clients and keeps the configured chat options
+            OllamaApi ollamaApi = new OllamaApi(baseUrl, restClientBuilder.getIfAvailable(RestClient::builder),
+                                                webClientBuilder.getIfAvailable(WebClient::builder));
+            ObservationRegistry observations = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
+            OllamaChatModel chatModel = OllamaChatModel.builder()
+                                                       .ollamaApi(ollamaApi)
+                                                       .defaultOptions(OllamaOptions.fromOptions(
+                                                               (OllamaOptions) defaultChatModel.getDefaultOptions()))
+                                                       .observationRegistry(observations)
+                                                       .build();
+            return ChatClient.builder(chatModel, observations, null);
+        }, circuitBreakerRegistry, meterRegistry, System::nanoTime);
+    }
+
+    OllamaBackendPool(OllamaBackendProperties properties, String defaultBaseUrl,
+            Function<String, ChatClient.Builder> chatClientFactory, CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        List<String> baseUrls = properties.getBaseUrls()
+                                          .stream()
+                                          .filter(url -> url != null && !url.isBlank())
+                                          .map(String::trim)
+                                          .distinct()
+                                          .toList();
+        if (baseUrls.isEmpty()) {
+            baseUrls = List.of(defaultBaseUrl);
+        }
+
+        this.ejectAfterFailures = Math.max(1, properties.getEjectAfterFailures());
+        this.baseEjectionNanos = properties.getBaseEjectionTime()
+                                           .toNanos();
+        this.maxEjectionNanos = Math.max(baseEjectionNanos, properties.getMaxEjectionTime()
+                                                                      .toNanos());
+        this.nanoClock = nanoClock;
+        this.meterRegistry = meterRegistry;
+
+        this.backends = baseUrls.stream()
+                                .map(baseUrl -> backend(baseUrl, chatClientFactory, circuitBreakerRegistry))
+                                .toList();
+        log.info("Ollama calls are routed over {} backend(s): {}", backends.size(), baseUrls);
+    }
+
+    /**
+     * Sends the prompt to the least loaded available backend and returns the response content.
+     */
+    public String call(Prompt prompt) {
+        return call(choose(), prompt, () -> false);
+    }
+
+    /**
+     * Sends the prompt to the given backend. A call failing after {@code cancelled} turned true was abandoned by the
+     * caller and does not count towards the backend's ejection.
+     */
+    String call(OllamaBackend backend, Prompt prompt, BooleanSupplier cancelled) {
+        try {
+            String content = backend.call(prompt, cancelled);
+            backend.onSuccess();
+            requests(backend, "success").increment();
+            return content;
+        } catch (CallNotPermittedException ex) {
+            requests(backend, "not_permitted").increment();
+            throw ex;
+        } catch (RuntimeException ex) {
+            if (cancelled.getAsBoolean()) {
+                requests(backend, "cancelled").increment();
+                throw ex;
+            }
+            requests(backend, "failure").increment();
+            if (backend.onFailure(nanoClock.getAsLong(), ejectAfterFailures, baseEjectionNanos, maxEjectionNanos)) {
+                log.warn("Ollama backend {} ejected after {} consecutive failures", backend.getName(),
+                         ejectAfterFailures);
+                ejections(backend).increment();
+            }
+            throw ex;
+        }
+    }
+
+    OllamaBackend choose() {
+        List<OllamaBackend> rotation = inRotation();
+        return leastLoaded(rotation, null, true).or(() -> leastLoaded(rotation, null, false))
+                                                .orElseThrow();
+    }
+
+    /**
+     * The least loaded available backend other than {@code excluded}, if there is one.
+     */
+    Optional<OllamaBackend> chooseOther(OllamaBackend excluded) {
+        return leastLoaded(inRotation(), excluded, true);
+    }
+
+    int size() {
+        return backends.size();
+    }
+
+    List<OllamaBackend> getBackends() {
+        return backends;
+    }
+
+    private Optional<OllamaBackend> leastLoaded(List<OllamaBackend> candidates, OllamaBackend excluded,
+            boolean availableOnly) {
+        long now = nanoClock.getAsLong();
+        OllamaBackend best = null;
+        for (OllamaBackend backend : candidates) {
+            if (backend == excluded || availableOnly && !backend.isAvailable(now)) {
+                continue;
+            }
+            if (best == null || backend.getOutstanding() < best.getOutstanding()) {
+                best = backend;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private List<OllamaBackend> inRotation() {
+        // ties go to the first backend of the list, so each call starts the list one backend further
+        int start = Math.floorMod(nextStart.getAndIncrement(), backends.size());
+        List<OllamaBackend> rotated = new ArrayList<>(backends.subList(start, backends.size()));
+        rotated.addAll(backends.subList(0, start));
+        return rotated;
+    }
+
+    private OllamaBackend backend(String baseUrl, Function<String, ChatClient.Builder> chatClientFactory,
+            CircuitBreakerRegistry circuitBreakerRegistry) {
+        String name = backendName(baseUrl);
+        ChatClient chatClient = chatClientFactory.apply(baseUrl)
+                                                 .defaultAdvisors(new SimpleLoggerAdvisor())
+                                                 .build();
+        OllamaBackend backend = new OllamaBackend(name, chatClient, circuitBreakerRegistry.circuitBreaker(
+                SpringAiOllamaClient.class.getSimpleName() + "-" + name));
+        configureCircuitBreakerEvents(backend.getCircuitBreaker());
+
+        Gauge.builder(OUTSTANDING_METRIC, backend, OllamaBackend::getOutstanding)
+             .description("Ollama calls in flight on a backend")
+             .tag("backend", name)
+             .register(meterRegistry);
+        Gauge.builder(AVAILABLE_METRIC, backend, b -> b.isAvailable(nanoClock.getAsLong()) ? 1 : 0)
+             .description("Whether an Ollama backend takes new calls (not ejected, circuit not open)")
+             .tag("backend", name)
+             .register(meterRegistry);
+        return backend;
+    }
+
+    private Counter requests(OllamaBackend backend, String outcome) {
+        return Counter.builder(REQUESTS_METRIC)
+                      .description("Ollama calls per backend by outcome")
+                      .tag("backend", backend.getName())
+                      .tag("outcome", outcome)
+                      .register(meterRegistry);
+    }
+
+    private Counter ejections(OllamaBackend backend) {
+        return Counter.builder(EJECTIONS_METRIC)
+                      .description("Times an Ollama backend was ejected from routing after consecutive failures")
+                      .tag("backend", backend.getName())
+                      .register(meterRegistry);
+    }
+
+    private static String backendName(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        return uri.getAuthority() != null ? uri.getAuthority() : baseUrl;
+    }
+}
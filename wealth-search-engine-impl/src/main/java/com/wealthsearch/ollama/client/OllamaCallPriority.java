@@ -0,0 +1,12 @@
+package com.wealthsearch.ollama.client;
+
+public enum OllamaCallPriority {
+    /**
+     * On a user's request path, e.g. query expansion.
+     */
+    INTERACTIVE,
+    /**
+     * Nobody waits for the answer, e.g. document summaries.
+     */
+    BACKGROUND
+}
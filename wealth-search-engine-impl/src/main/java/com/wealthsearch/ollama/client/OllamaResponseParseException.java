@@ -0,0 +1,14 @@
+package com.wealthsearch.ollama.client;
+
+import com.wealthsearch.model.exception.OllamaClientException;
+
+/**
+ * Ollama answered, but the model's output could not be read as the expected response. Says nothing about the health
+ * or capacity of the backend.
+ */
+class OllamaResponseParseException extends OllamaClientException {
+
+    OllamaResponseParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
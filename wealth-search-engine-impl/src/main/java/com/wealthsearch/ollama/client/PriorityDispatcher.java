@@ -0,0 +1,214 @@
+package com.wealthsearch.ollama.client;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out call slots, serving waiting interactive calls ahead of waiting background ones. While both wait,
+ * background calls still get their configured share of the freed slots so they are not starved, and they may never
+ * hold more than their own cap, which keeps the remaining slots free for interactive calls. The number of slots is
+ * read on every dispatch, so it can follow an adaptive concurrency limit.
+ */
+public class PriorityDispatcher {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final IntSupplier maxConcurrent;
+
+    private final IntSupplier maxBackgroundInFlight;
+
+    // background credit earned per interactive grant made while background calls were waiting
+    private final double backgroundCreditPerGrant;
+
+    private final Map<OllamaCallPriority, Deque<Waiter>> waiting = new EnumMap<>(OllamaCallPriority.class);
+
+    private int inFlight;
+
+    private int backgroundInFlight;
+
+    private double backgroundCredit;
+
+    /**
+     * @param backgroundShare fraction of slots granted to background calls while calls of both priorities wait
+     */
+    public PriorityDispatcher(int maxConcurrent, int maxBackgroundInFlight, double backgroundShare) {
+        this(() -> maxConcurrent, () -> maxBackgroundInFlight, backgroundShare);
+    }
+
+    /**
+     * @param maxConcurrent         current number of slots, e.g. the limit of an adaptive limiter
+     * @param maxBackgroundInFlight current cap of slots held by background calls
+     * @param backgroundShare       fraction of slots granted to background calls while calls of both priorities wait
+     */
+    public PriorityDispatcher(IntSupplier maxConcurrent, IntSupplier maxBackgroundInFlight, double backgroundShare) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxBackgroundInFlight = maxBackgroundInFlight;
+        double share = Math.max(0.0, Math.min(0.9, backgroundShare));
+        this.backgroundCreditPerGrant = share / (1 - share);
+        for (OllamaCallPriority priority : OllamaCallPriority.values()) {
+            waiting.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Waits at most {@code maxWait} for a slot.
+     *
+     * @return the slot to close once the call is done, or empty when none became free in time
+     */
+    public Optional<Slot> acquire(OllamaCallPriority priority, Duration maxWait) throws InterruptedException {
+        lock.lock();
+        try {
+            if (canStartNow(priority)) {
+                return Optional.of(grant(priority));
+            }
+
+            Waiter waiter = new Waiter(priority, lock.newCondition());
+            waiting.get(priority)
+                   .addLast(waiter);
+            long remainingNanos = maxWait.toNanos();
+            try {
+                while (waiter.slot == null) {
+                    if (remainingNanos <= 0) {
+                        waiting.get(priority)
+                               .remove(waiter);
+                        return Optional.empty();
+                    }
+                    remainingNanos = waiter.granted.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.slot != null) {
+                    waiter.slot.close();
+                } else {
+                    waiting.get(priority)
+                           .remove(waiter);
+                }
+                throw e;
+            }
+            return Optional.of(waiter.slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting(OllamaCallPriority priority) {
+        lock.lock();
+        try {
+            return waiting.get(priority)
+                          .size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean canStartNow(OllamaCallPriority priority) {
+        if (!hasCapacity(priority) || !waiting.get(OllamaCallPriority.INTERACTIVE)
+                                              .isEmpty()) {
+            return false;
+        }
+        return priority == OllamaCallPriority.INTERACTIVE || waiting.get(OllamaCallPriority.BACKGROUND)
+                                                                    .isEmpty();
+    }
+
+    private boolean hasCapacity(OllamaCallPriority priority) {
+        int slots = Math.max(1, maxConcurrent.getAsInt());
+        int backgroundSlots = Math.max(0, Math.min(slots, maxBackgroundInFlight.getAsInt()));
+        return inFlight < slots && (priority == OllamaCallPriority.INTERACTIVE || backgroundInFlight < backgroundSlots);
+    }
+
+    private Slot grant(OllamaCallPriority priority) {
+        inFlight++;
+        if (priority == OllamaCallPriority.BACKGROUND) {
+            backgroundInFlight++;
+        }
+        return new Slot(priority);
+    }
+
+    private void release(OllamaCallPriority priority) {
+        inFlight--;
+        if (priority == OllamaCallPriority.BACKGROUND) {
+            backgroundInFlight--;
+        }
+        dispatchWaiting();
+    }
+
+    private void dispatchWaiting() {
+        while (true) {
+            Deque<Waiter> interactive = waiting.get(OllamaCallPriority.INTERACTIVE);
+            Deque<Waiter> background = waiting.get(OllamaCallPriority.BACKGROUND);
+            boolean interactiveReady = !interactive.isEmpty() && hasCapacity(OllamaCallPriority.INTERACTIVE);
+            boolean backgroundReady = !background.isEmpty() && hasCapacity(OllamaCallPriority.BACKGROUND);
+
+            Waiter next;
+            if (interactiveReady && backgroundReady && backgroundCredit >= 1) {
+                backgroundCredit -= 1;
+                next = background.pollFirst();
+            } else if (interactiveReady) {
+                if (backgroundReady) {
+                    backgroundCredit += backgroundCreditPerGrant;
+                }
+                next = interactive.pollFirst();
+            } else if (backgroundReady) {
+                next = background.pollFirst();
+            } else {
+                return;
+            }
+
+            next.slot = grant(next.priority);
+            next.granted.signal();
+        }
+    }
+
+    private static final class Waiter {
+
+        private final OllamaCallPriority priority;
+
+        private final Condition granted;
+
+        private Slot slot;
+
+        private Waiter(OllamaCallPriority priority, Condition granted) {
+            this.priority = priority;
+            this.granted = granted;
+        }
+    }
+
+    public final class Slot implements AutoCloseable {
+
+        private final OllamaCallPriority priority;
+
+        private boolean released;
+
+        private Slot(OllamaCallPriority priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (!released) {
+                    released = true;
+                    release(priority);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.wealthsearch.ollama.client;
+
+import com.wealthsearch.model.exception.OllamaClientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.ai.chat.prompt.Prompt;
+
+/**
+ * Sends a call that has not answered within a high percentile of the recent call latencies to a second backend as
+ * well, and takes whichever response comes first; the other call is cancelled. Hedges are paid from a token bucket
+ * filled by a fraction of every call, so they add at most that fraction of extra load, and nothing is hedged until
+ * enough latencies were seen to know the percentile. Every call records the latency of its primary attempt from the
+ * start of the call, also when a hedge won and the primary was cancelled, so slow primaries keep the percentile up.
+ */
+public class RequestHedger {
+
+    // latencies the percentile is taken over
+    private static final int WINDOW = 256;
+
+    static final int MIN_SAMPLES = 20;
+
+    // unused budget is kept for at most this many hedges, so a quiet period cannot fund a burst of them
+    private static final double MAX_TOKENS = 10;
+
+    private final OllamaBackendPool backendPool;
+
+    private final ExecutorService executor;
+
+    private final double percentile;
+
+    private final long minDelayNanos;
+
+    private final double budgetRatio;
+
+    private final LongSupplier nanoClock;
+
+    private final long[] latencies = new long[WINDOW];
+
+    private int next;
+
+    private int samples;
+
+    private double tokens;
+
+    private final LongAdder hedgesWon = new LongAdder();
+
+    private final LongAdder hedgesLost = new LongAdder();
+
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    public RequestHedger(OllamaBackendPool backendPool, ExecutorService executor, double percentile,
+            Duration minDelay, double budgetRatio) {
+        this(backendPool, executor, percentile, minDelay, budgetRatio, System::nanoTime);
+    }
+
+    RequestHedger(OllamaBackendPool backendPool, ExecutorService executor, double percentile, Duration minDelay,
+            double budgetRatio, LongSupplier nanoClock) {
+        this.backendPool = backendPool;
+        this.nanoClock = nanoClock;
+        this.executor = executor;
+        this.percentile = Math.min(1.0, Math.max(0.0, percentile));
+        this.minDelayNanos = Math.max(0, minDelay.toNanos());
+        this.budgetRatio = Math.max(0.0, budgetRatio);
+    }
+
+    public String call(Prompt prompt) {
+        if (backendPool.size() < 2) {
+            return backendPool.call(prompt);
+        }
+        deposit();
+
+        long startNanos = nanoClock.getAsLong();
+        ExecutorCompletionService<String> completion = new ExecutorCompletionService<>(executor);
+        List<Attempt> attempts = new ArrayList<>(2);
+        try {
+            OllamaBackend primary = backendPool.choose();
+            try {
+                attempts.add(submit(completion, primary, prompt, false));
+            } catch (RejectedExecutionException e) {
+                // no thread to wait on, so the call goes out unhedged on the caller's thread
+                return backendPool.call(primary, prompt, () -> false);
+            }
+
+            long delayNanos = hedgeDelayNanos();
+            Future<String> done = delayNanos < 0 ? completion.take()
+                    : completion.poll(delayNanos, TimeUnit.NANOSECONDS);
+            if (done == null) {
+                hedge(completion, attempts, primary, prompt);
+                done = completion.take();
+            }
+            String content = firstSuccess(completion, attempts, done);
+            recordPrimaryLatency(attempts.getFirst(), startNanos);
+            return content;
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new OllamaClientException("Interrupted while waiting for Ollama response", e);
+        } finally {
+            attempts.forEach(Attempt::cancel);
+        }
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    public long getHedgesLost() {
+        return hedgesLost.sum();
+    }
+
+    public long getBudgetExhausted() {
+        return budgetExhausted.sum();
+    }
+
+    /**
+     * @return the current hedge delay in milliseconds, or -1 while too few latencies were seen
+     */
+    public double getDelayMillis() {
+        long delayNanos = hedgeDelayNanos();
+        return delayNanos < 0 ? -1 : delayNanos / 1_000_000.0;
+    }
+
+    private void hedge(ExecutorCompletionService<String> completion, List<Attempt> attempts, OllamaBackend primary,
+            Prompt prompt) {
+        // without a second available backend, or budget, the primary call is simply waited for
+        Optional<OllamaBackend> second = backendPool.chooseOther(primary);
+        if (second.isEmpty()) {
+            return;
+        }
+        if (!withdraw()) {
+            budgetExhausted.increment();
+            return;
+        }
+
+        try {
+            attempts.add(submit(completion, second.get(), prompt, true));
+        } catch (RejectedExecutionException e) {
+            // no thread for the hedge, the primary call is waited for
+        }
+    }
+
+    private String firstSuccess(ExecutorCompletionService<String> completion, List<Attempt> attempts,
+            Future<String> done) throws InterruptedException {
+        int pending = attempts.size();
+        while (true) {
+            Attempt attempt = attemptOf(attempts, done);
+            pending--;
+            try {
+                String content = done.get();
+                if (attempts.size() > 1) {
+                    (attempt.hedge() ? hedgesWon : hedgesLost).increment();
+                }
+                return content;
+            } catch (ExecutionException e) {
+                if (pending == 0) {
+                    throw e.getCause() instanceof RuntimeException runtime ? runtime
+                            : new OllamaClientException("Ollama call failed", e.getCause());
+                }
+            }
+            done = completion.take();
+        }
+    }
+
+    private Attempt submit(ExecutorCompletionService<String> completion, OllamaBackend backend, Prompt prompt,
+            boolean hedge) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Future<String> future = completion.submit(() -> backendPool.call(backend, prompt, cancelled::get));
+        return new Attempt(future, cancelled, hedge);
+    }
+
+    private static Attempt attemptOf(List<Attempt> attempts, Future<String> future) {
+        return attempts.stream()
+                       .filter(attempt -> attempt.future() == future)
+                       .findFirst()
+                       .orElseThrow();
+    }
+
+    // a primary still running lost to the hedge and is cancelled now; only a failed primary tells nothing
+    private void recordPrimaryLatency(Attempt primary, long startNanos) {
+        if (primary.future()
+                   .state() != Future.State.FAILED) {
+            recordLatency(nanoClock.getAsLong() - startNanos);
+        }
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[next] = nanos;
+        next = (next + 1) % WINDOW;
+        samples = Math.min(WINDOW, samples + 1);
+    }
+
+    private synchronized long hedgeDelayNanos() {
+        if (samples < MIN_SAMPLES) {
+            return -1;
+        }
+        long[] window = Arrays.copyOf(latencies, samples);
+        Arrays.sort(window);
+        int index = (int) Math.ceil(percentile * window.length) - 1;
+        return Math.max(minDelayNanos, window[Math.max(0, index)]);
+    }
+
+    private synchronized void deposit() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    private synchronized boolean withdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private record Attempt(Future<String> future, AtomicBoolean cancelled, boolean hedge) {
+
+        void cancel() {
+            if (!future.isDone()) {
+                cancelled.set(true);
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -4,73 +4,279 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wealthsearch.api.ollama.client.OllamaClient;
 import com.wealthsearch.model.ollama.FtsQueryExpandResult;
 import com.wealthsearch.model.exception.OllamaClientException;
+import com.wealthsearch.model.exception.OllamaOverloadedException;
+import com.wealthsearch.ollama.client.confiuration.OllamaConcurrencyLimitProperties;
+import com.wealthsearch.ollama.client.confiuration.OllamaDispatchProperties;
+import com.wealthsearch.ollama.client.confiuration.OllamaHedgingProperties;
 import com.wealthsearch.model.ollama.SummaryResult;
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.retry.RetryRegistry;
-import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
-import static com.wealthsearch.utils.ResilienceConfigurationHelper.*;
-
 @Slf4j
 @Component
 public class SpringAiOllamaClient implements OllamaClient {
 
-    private final CircuitBreaker circuitBreaker;
+    static final String LIMIT_METRIC = "ollama.client.concurrency.limit";
+
+    static final String IN_FLIGHT_METRIC = "ollama.client.concurrency.in-flight";
+
+    static final String REJECTED_METRIC = "ollama.client.concurrency.rejected";
+
+    static final String WAITING_METRIC = "ollama.client.dispatch.waiting";
+
+    static final String WAIT_TIMEOUT_METRIC = "ollama.client.dispatch.wait-timeouts";
+
+    static final String HEDGES_METRIC = "ollama.client.hedging.hedges";
+
+    static final String HEDGE_BUDGET_EXHAUSTED_METRIC = "ollama.client.hedging.budget-exhausted";
+
+    static final String HEDGE_DELAY_METRIC = "ollama.client.hedging.delay";
+
+    private static final String GENERATE = "generate";
+
+    private static final String GENERATE_SUMMARY = "generateSummary";
+
+    private final boolean limitEnabled;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters;
 
-    private final ChatClient chatClient;
+    private final Map<String, Counter> rejections;
+
+    private final OllamaDispatchProperties dispatchProperties;
+
+    private final PriorityDispatcher dispatcher;
+
+    private final Map<OllamaCallPriority, Counter> waitTimeouts;
+
+    private final OllamaBackendPool backendPool;
+
+    private final ThreadPoolExecutor hedgingExecutor;
+
+    private final Map<String, RequestHedger> hedgers;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public SpringAiOllamaClient(CircuitBreakerRegistry circuitBreakerRegistry, RetryRegistry retryRegistry,
-            ChatClient.Builder chatClientBuilder) {
-        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(SpringAiOllamaClient.class.getSimpleName());
-        this.chatClient = chatClientBuilder.defaultAdvisors(new SimpleLoggerAdvisor())
-                                           .build();
+    public SpringAiOllamaClient(RetryRegistry retryRegistry, OllamaBackendPool backendPool,
+            OllamaConcurrencyLimitProperties limitProperties, OllamaDispatchProperties dispatchProperties,
+            OllamaHedgingProperties hedgingProperties, MeterRegistry meterRegistry) {
+        this.backendPool = backendPool;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ollama-call-");
+        threadFactory.setDaemon(true);
+        // calls beyond the limit are rejected instead of queued and then go out unhedged on the caller's thread
+        this.hedgingExecutor = new ThreadPoolExecutor(hedgingProperties.getMaxThreads(),
+                                                      hedgingProperties.getMaxThreads(), 60L, TimeUnit.SECONDS,
+                                                      new SynchronousQueue<>(), threadFactory,
+                                                      new ThreadPoolExecutor.AbortPolicy());
+        this.hedgingExecutor.allowCoreThreadTimeOut(true);
+        this.hedgers = new HashMap<>();
+        hedger(GENERATE, hedgingProperties.getGenerate(), meterRegistry);
+        hedger(GENERATE_SUMMARY, hedgingProperties.getGenerateSummary(), meterRegistry);
+
+        // short interactive expansions and long summaries get separate permits, so neither starves the other; limits
+        // and dispatch caps are configured per backend, so adding backends raises how many calls may be in flight
+        int backends = backendPool.size();
+        this.limitEnabled = limitProperties.isEnabled();
+        this.limiters = Map.of(GENERATE, limiter(limitProperties.getGenerate(), backends), GENERATE_SUMMARY,
+                               limiter(limitProperties.getGenerateSummary(), backends));
+        this.rejections = Map.of(GENERATE, rejectionCounter(meterRegistry, GENERATE), GENERATE_SUMMARY,
+                                 rejectionCounter(meterRegistry, GENERATE_SUMMARY));
+        limiters.forEach((operation, limiter) -> registerGauges(meterRegistry, operation, limiter));
+
+        this.dispatchProperties = dispatchProperties;
+        // the slots follow the adaptive limit of expansions, the short calls that probe what Ollama can take, so the
+        // dispatcher orders calls without holding them below the limit
+        AdaptiveConcurrencyLimiter generateLimiter = limiters.get(GENERATE);
+        IntSupplier maxConcurrent = limitEnabled ? generateLimiter::getLimit
+                : () -> dispatchProperties.getMaxConcurrent() * backends;
+        this.dispatcher = new PriorityDispatcher(maxConcurrent,
+                                                 () -> dispatchProperties.getMaxBackgroundInFlight() * backends,
+                                                 dispatchProperties.getBackgroundShare());
+        this.waitTimeouts = new EnumMap<>(OllamaCallPriority.class);
+        for (OllamaCallPriority priority : OllamaCallPriority.values()) {
+            String tag = priority.name()
+                                 .toLowerCase(Locale.ROOT);
+            Gauge.builder(WAITING_METRIC, dispatcher, d -> d.getWaiting(priority))
+                 .description("Ollama calls waiting for a dispatch slot")
+                 .tag("priority", tag)
+                 .register(meterRegistry);
+            waitTimeouts.put(priority, Counter.builder(WAIT_TIMEOUT_METRIC)
+                                              .description("Ollama calls that gave up waiting for a dispatch slot")
+                                              .tag("priority", tag)
+                                              .register(meterRegistry));
+        }
     }
 
-    @PostConstruct
-    public void init() {
-        configureCircuitBreakerEvents(circuitBreaker);
+    @PreDestroy
+    public void shutdown() {
+        hedgingExecutor.shutdownNow();
     }
 
     @Override
     public FtsQueryExpandResult generate(Prompt prompt) {
-        return executeWithResilience(() -> generateInternal(prompt, FtsQueryExpandResult.class), "generate");
+        return executeWithResilience(() -> generateInternal(prompt, FtsQueryExpandResult.class, GENERATE), GENERATE,
+                                     OllamaCallPriority.INTERACTIVE);
     }
 
     @Override
     public SummaryResult generateSummary(Prompt prompt) {
-        return executeWithResilience(() -> generateInternal(prompt, SummaryResult.class), "generate");
+        return executeWithResilience(() -> generateInternal(prompt, SummaryResult.class, GENERATE_SUMMARY),
+                                     GENERATE_SUMMARY, OllamaCallPriority.BACKGROUND);
     }
 
-    private <T> T generateInternal(Prompt prompt, Class<T> clazz) {
+    private <T> T generateInternal(Prompt prompt, Class<T> clazz, String operation) {
+        // the backend breakers and ejection only see transport and server failures, not unparsable model output
+        RequestHedger hedger = hedgers.get(operation);
+        String content = hedger != null ? hedger.call(prompt) : backendPool.call(prompt);
         try {
-            String content = this.chatClient.prompt(prompt)
-                                            .call()
-                                            .content();
             return objectMapper.readValue(content, clazz);
         } catch (Exception ex) {
-            throw new OllamaClientException("Failed to generate response", ex);
+            throw new OllamaResponseParseException("Failed to generate response", ex);
+        }
+    }
+
+    private <T> T executeWithResilience(Supplier<T> supplier, String operation, OllamaCallPriority priority) {
+        if (!dispatchProperties.isEnabled()) {
+            return executeWithinLimit(supplier, operation);
+        }
+
+        try (PriorityDispatcher.Slot slot = acquireSlot(operation, priority)) {
+            return executeWithinLimit(supplier, operation);
         }
     }
 
-    private <T> T executeWithResilience(Supplier<T> supplier, String operation) {
+    private PriorityDispatcher.Slot acquireSlot(String operation, OllamaCallPriority priority) {
+        Duration maxWait = priority == OllamaCallPriority.INTERACTIVE ? dispatchProperties.getInteractiveMaxWait()
+                : dispatchProperties.getBackgroundMaxWait();
+        Optional<PriorityDispatcher.Slot> slot;
         try {
+            slot = dispatcher.acquire(priority, maxWait);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new OllamaClientException("Interrupted while waiting to execute " + operation + " operation", e);
+        }
+
+        return slot.orElseThrow(() -> {
+            waitTimeouts.get(priority)
+                        .increment();
+            return new OllamaOverloadedException("No Ollama slot for " + operation + " operation within " + maxWait);
+        });
+    }
 
-            Supplier<T> decoratedSupplier = CircuitBreaker.decorateSupplier(circuitBreaker, supplier);
-            return decoratedSupplier.get();
+    private <T> T executeWithinLimit(Supplier<T> supplier, String operation) {
+        if (!limitEnabled) {
+            return executeOnBackend(supplier, operation);
+        }
+
+        AdaptiveConcurrencyLimiter.Permit permit = limiters.get(operation)
+                                                           .tryAcquire()
+                                                           .orElseThrow(() -> reject(operation));
+        try {
+            T result = executeOnBackend(supplier, operation);
+            permit.onSuccess();
+            return result;
+        } catch (RuntimeException ex) {
+            if (ex.getCause() instanceof CallNotPermittedException) {
+                permit.onIgnore();
+            } else if (ex.getCause() instanceof OllamaResponseParseException) {
+                // the backend answered in time, only the model's output was unusable
+                permit.onSuccess();
+            } else {
+                permit.onFailure();
+            }
+            throw ex;
+        }
+    }
 
+    private <T> T executeOnBackend(Supplier<T> supplier, String operation) {
+        try {
+            return supplier.get();
         } catch (Exception ex) {
             log.error("Ollama {} operation failed after resilience handling: {}", operation, ex.getMessage(), ex);
             throw new OllamaClientException("Failed to execute " + operation + " operation", ex);
         }
     }
+
+    private OllamaOverloadedException reject(String operation) {
+        rejections.get(operation)
+                  .increment();
+        log.debug("Ollama {} rejected, concurrency limit {} reached", operation, limiters.get(operation)
+                                                                                        .getLimit());
+        return new OllamaOverloadedException("Concurrency limit of " + operation + " operation reached");
+    }
+
+    private void hedger(String operation, OllamaHedgingProperties.Hedge hedge, MeterRegistry meterRegistry) {
+        if (!hedge.isEnabled()) {
+            return;
+        }
+
+        RequestHedger hedger = new RequestHedger(backendPool, hedgingExecutor, hedge.getPercentile(),
+                                                 hedge.getMinDelay(), hedge.getBudgetRatio());
+        hedgers.put(operation, hedger);
+        FunctionCounter.builder(HEDGES_METRIC, hedger, RequestHedger::getHedgesWon)
+                       .description("Hedged Ollama calls by which response came first")
+                       .tag("operation", operation)
+                       .tag("winner", "hedge")
+                       .register(meterRegistry);
+        FunctionCounter.builder(HEDGES_METRIC, hedger, RequestHedger::getHedgesLost)
+                       .description("Hedged Ollama calls by which response came first")
+                       .tag("operation", operation)
+                       .tag("winner", "primary")
+                       .register(meterRegistry);
+        FunctionCounter.builder(HEDGE_BUDGET_EXHAUSTED_METRIC, hedger, RequestHedger::getBudgetExhausted)
+                       .description("Slow Ollama calls not hedged because the hedge budget was spent")
+                       .tag("operation", operation)
+                       .register(meterRegistry);
+        Gauge.builder(HEDGE_DELAY_METRIC, hedger, RequestHedger::getDelayMillis)
+             .description("Time after which an unanswered Ollama call is hedged, -1 until enough calls were seen")
+             .tag("operation", operation)
+             .baseUnit("milliseconds")
+             .register(meterRegistry);
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(OllamaConcurrencyLimitProperties.Limit limit, int backends) {
+        return new AdaptiveConcurrencyLimiter(limit.getInitialLimit() * backends, limit.getMinLimit() * backends,
+                                              limit.getMaxLimit() * backends);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder(REJECTED_METRIC)
+                      .description("Ollama calls rejected by the concurrency limit")
+                      .tag("operation", operation)
+                      .register(meterRegistry);
+    }
+
+    private static void registerGauges(MeterRegistry meterRegistry, String operation,
+            AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder(LIMIT_METRIC, limiter, AdaptiveConcurrencyLimiter::getLimit)
+             .description("Current adaptive concurrency limit of Ollama calls")
+             .tag("operation", operation)
+             .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, limiter, AdaptiveConcurrencyLimiter::getInFlight)
+             .description("Ollama calls in flight")
+             .tag("operation", operation)
+             .register(meterRegistry);
+    }
 }
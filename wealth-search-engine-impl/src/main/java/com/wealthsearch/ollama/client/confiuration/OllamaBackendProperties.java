@@ -0,0 +1,25 @@
+package com.wealthsearch.ollama.client.confiuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ollama.client.backends")
+public class OllamaBackendProperties {
+
+    /**
+     * Ollama instances the calls are spread over; when empty, {@code spring.ai.ollama.base-url} is the only one.
+     */
+    private List<String> baseUrls = new ArrayList<>();
+
+    private int ejectAfterFailures = 3;
+
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+}
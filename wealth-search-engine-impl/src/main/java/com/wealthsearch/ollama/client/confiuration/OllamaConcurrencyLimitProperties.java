@@ -0,0 +1,31 @@
+package com.wealthsearch.ollama.client.confiuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ollama.client.concurrency-limit")
+public class OllamaConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private Limit generate = new Limit(8, 2, 32);
+
+    private Limit generateSummary = new Limit(2, 1, 8);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        private int initialLimit;
+
+        private int minLimit;
+
+        private int maxLimit;
+    }
+}
@@ -0,0 +1,24 @@
+package com.wealthsearch.ollama.client.confiuration;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ollama.client.dispatch")
+public class OllamaDispatchProperties {
+
+    private boolean enabled = true;
+
+    private int maxConcurrent = 4;
+
+    private int maxBackgroundInFlight = 2;
+
+    private double backgroundShare = 0.1;
+
+    private Duration interactiveMaxWait = Duration.ofMillis(200);
+
+    private Duration backgroundMaxWait = Duration.ofMinutes(2);
+}
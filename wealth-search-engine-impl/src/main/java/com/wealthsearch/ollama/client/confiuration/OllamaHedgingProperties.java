@@ -0,0 +1,40 @@
+package com.wealthsearch.ollama.client.confiuration;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ollama.client.hedging")
+public class OllamaHedgingProperties {
+
+    private int maxThreads = 32;
+
+    private Hedge generate = new Hedge(true, 0.95, Duration.ofMillis(100), 0.1);
+
+    private Hedge generateSummary = new Hedge(false, 0.95, Duration.ofSeconds(5), 0.05);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hedge {
+
+        private boolean enabled;
+
+        /**
+         * A call still unanswered after this percentile of the recent call latencies is sent to a second backend.
+         */
+        private double percentile;
+
+        private Duration minDelay;
+
+        /**
+         * Hedges allowed per call, e.g. 0.1 keeps the extra load at most 10%.
+         */
+        private double budgetRatio;
+    }
+}
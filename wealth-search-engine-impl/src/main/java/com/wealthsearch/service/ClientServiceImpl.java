@@ -5,10 +5,12 @@ import com.wealthsearch.db.repository.ClientRepository;
 import com.wealthsearch.model.exception.DuplicateClientEmailException;
 import com.wealthsearch.model.entity.Client;
 import com.wealthsearch.model.exception.ClientAlreadyExistsException;
+import com.wealthsearch.service.event.ClientCreatedEvent;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,8 @@ public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
     @Transactional
     public Client createClient(Client client) {
@@ -32,11 +36,15 @@ public class ClientServiceImpl implements ClientService {
                                                               .orElse(null))
                                   .build();
 
+        Client saved;
         try {
-            return clientRepository.save(normalized);
+            saved = clientRepository.save(normalized);
         } catch (DuplicateClientEmailException ex) {
             throw new ClientAlreadyExistsException(normalized.getEmail());
         }
+
+        eventPublisher.publishEvent(new ClientCreatedEvent(saved));
+        return saved;
     }
 
     @Override
@@ -17,8 +17,15 @@ import com.wealthsearch.model.entity.DocumentSummaryProcessItem;
 import com.wealthsearch.model.entity.DocumentSummaryProcessStatus;
 import com.wealthsearch.model.exception.ConflictException;
 import com.wealthsearch.model.exception.NotFoundException;
+import com.wealthsearch.model.exception.OllamaOverloadedException;
+import com.wealthsearch.service.event.DocumentCreatedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,12 +40,38 @@ public class DocumentServiceImpl implements DocumentService {
 
     private final ClientRepository clientRepository;
 
-    private final ExecutorService e = this.prepareExecutorService();
+    @Value("${document-summary.worker-threads:8}")
+    private int workerThreads;
+
+    @Value("${document-summary.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor e;
 
     private final SummaryGenerationService summaryGenerationService;
 
     private final Map<UUID, Lock> docId2Lock = new ConcurrentHashMap<>();
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostConstruct
+    void prepareExecutorService() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("document-summary-");
+        threadFactory.setDaemon(true);
+        int threads = Math.max(1, workerThreads);
+        // summaries wait for Ollama on these workers; a full queue fails the request rather than running the
+        // summary on the request thread inside its transaction
+        this.e = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                                        new LinkedBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory,
+                                        new ThreadPoolExecutor.AbortPolicy());
+        this.e.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        e.shutdownNow();
+    }
+
     @Override
     @Transactional
     public Document createDocument(Document document) {
@@ -57,7 +90,10 @@ public class DocumentServiceImpl implements DocumentService {
                                      .clientId(clientId)
                                      .build();
 
-        return documentRepository.save(toPersist);
+        Document saved = documentRepository.save(toPersist);
+
+        eventPublisher.publishEvent(new DocumentCreatedEvent(saved));
+        return saved;
     }
 
     @Override
@@ -101,6 +137,9 @@ public class DocumentServiceImpl implements DocumentService {
                         throw any;
                     }
                 });
+            } catch (RejectedExecutionException rejected) {
+                // the throw rolls back this transaction, so the item is left as it was before the request
+                throw new OllamaOverloadedException("Summary queue is full, try again later");
             } catch (Exception any) {
                 summaryProcessItemRepository.markStatus(documentId, DocumentSummaryProcessStatus.FAILED);
                 throw any;
@@ -111,9 +150,4 @@ public class DocumentServiceImpl implements DocumentService {
             throw new ConflictException("Error while try to lock");
         }
     }
-
-    private ExecutorService prepareExecutorService() {
-        return new ThreadPoolExecutor(0, 1, 0L, TimeUnit.SECONDS, new SynchronousQueue<>(),
-                new ThreadPoolExecutor.CallerRunsPolicy());
-    }
 }
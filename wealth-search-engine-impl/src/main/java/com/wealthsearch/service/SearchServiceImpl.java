@@ -2,7 +2,6 @@ package com.wealthsearch.service;
 
 import com.wealthsearch.api.SearchService;
 import com.wealthsearch.api.ollama.SemanticSearchQueryExpander;
-import com.wealthsearch.db.repository.ClientRepository;
 import com.wealthsearch.db.repository.DocumentRepository;
 import com.wealthsearch.model.entity.search.ClientSearchHit;
 
@@ -12,32 +11,47 @@ import java.util.Set;
 import java.util.regex.Pattern;
 
 import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
 import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
 import com.wealthsearch.model.exception.ErrorEntry;
 import com.wealthsearch.model.exception.BadRequestException;
+import com.wealthsearch.service.search.ClientSearchEngine;
+import com.wealthsearch.service.search.ClientSearchResultCache;
+import com.wealthsearch.service.search.DocumentSearchResultCache;
+import com.wealthsearch.service.search.HedgedDocumentSearch;
 import com.wealthsearch.utils.SearchQueryUtils;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class SearchServiceImpl implements SearchService {
 
-    private final ClientRepository clientRepository;
+    private final ClientSearchEngine clientSearchEngine;
+
+    private final ClientSearchResultCache clientSearchResultCache;
 
     private final DocumentRepository documentRepository;
 
+    private final DocumentSearchResultCache documentSearchResultCache;
+
     private final SemanticSearchQueryExpander searchQueryExpander;
 
+    private final HedgedDocumentSearch hedgedDocumentSearch;
+
     @Value("${search.clients-search.max-query-length:128}")
     private Long maxQueryLength;
 
+    @Value("${search.documents-search.max-client-ids:100}")
+    private int maxClientIds;
+
+    @Value("${search.documents-search.hedging.enabled:true}")
+    private boolean hedgingEnabled;
+
     @Override
-    @Transactional(readOnly = true)
     public SearchResult<ClientSearchHit> searchClientsPerCompanyName(String query, PaginationParams paginationParams) {
         this.validateQuery(query);
         String normalizedQuery = SearchQueryUtils.normalize(query);
@@ -48,13 +62,16 @@ public class SearchServiceImpl implements SearchService {
             throw new BadRequestException("Query does not contain searchable characters");
         }
 
+        this.validatePagination(paginationParams);
+
         Pattern WS = Pattern.compile("\\s+");
-        String[] words = WS.split(normalizedQuery.trim());
-        return clientRepository.findClientsByCompanyDomain(List.of(words), paginationParams);
+        List<String> words = List.of(WS.split(normalizedQuery.trim()));
+        return clientSearchResultCache.get(words, paginationParams,
+                                           () -> clientSearchEngine.search(words, paginationParams));
     }
 
     @Override
-    public SearchResult<DocumentSearchHit> searchDocumentsBySimilarTerms(String query,
+    public SearchResult<DocumentSearchHit> searchDocumentsBySimilarTerms(String query, DocumentSearchOptions options,
             PaginationParams paginationParams) {
         this.validateQuery(query);
         String normalizedQuery = SearchQueryUtils.normalize(query);
@@ -63,8 +80,43 @@ public class SearchServiceImpl implements SearchService {
             throw new BadRequestException("Query does not contain searchable characters");
         }
 
-        Set<String> searchTerms = searchQueryExpander.expandQueryWithSynonyms(query);
-        return documentRepository.searchByContent(searchTerms, paginationParams);
+        this.validatePagination(paginationParams);
+        this.validateOptions(options);
+
+        if (hedgingEnabled) {
+            return hedgedDocumentSearch.search(query, paginationParams,
+                                               terms -> searchByTerms(terms, options, paginationParams));
+        }
+
+        Set<String> searchTerms = paginationParams.hasCursor()
+                ? hedgedDocumentSearch.termSetOfCursor(query, paginationParams.getCursor())
+                : searchQueryExpander.expandQueryWithSynonyms(query);
+        return searchByTerms(searchTerms, options, paginationParams);
+    }
+
+    private SearchResult<DocumentSearchHit> searchByTerms(Set<String> searchTerms, DocumentSearchOptions options,
+            PaginationParams paginationParams) {
+        return documentSearchResultCache.get(searchTerms, options, paginationParams,
+                                             () -> documentRepository.searchByContent(searchTerms, options,
+                                                                                      paginationParams));
+    }
+
+    private void validatePagination(PaginationParams paginationParams) {
+        if (paginationParams.hasCursor() && paginationParams.getOffset() > 0) {
+            throw new BadRequestException("Cursor cannot be combined with offset");
+        }
+    }
+
+    private void validateOptions(DocumentSearchOptions options) {
+        if (options.getClientIds()
+                   .size() > maxClientIds) {
+            throw new BadRequestException("Too many client ids. Max allowed: '%s'".formatted(maxClientIds));
+        }
+        if (options.getCreatedFrom() != null && options.getCreatedTo() != null
+                && !options.getCreatedFrom()
+                           .isBefore(options.getCreatedTo())) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
     }
 
     private void validateQuery(String query) {
@@ -17,7 +17,6 @@ import org.springframework.ai.ollama.api.OllamaOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.FileCopyUtils;
 
 import java.io.IOException;
@@ -55,7 +54,7 @@ public class SummaryGenerationService {
         }
     }
 
-    @Transactional
+    // no transaction around the Ollama call, which would hold a pooled connection while the summary is generated
     public void generateSummaryForDocumentAsync(Document document,
             DocumentSummaryProcessItem documentSummaryProcessItem) {
         log.info("Start generation summary for document {}", document.getId());
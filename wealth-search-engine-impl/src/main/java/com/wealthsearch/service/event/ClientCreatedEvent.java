@@ -0,0 +1,10 @@
+package com.wealthsearch.service.event;
+
+import com.wealthsearch.model.entity.Client;
+
+/**
+ * Published by {@link com.wealthsearch.service.ClientServiceImpl} for every persisted client. Listeners that keep
+ * derived state should consume it after commit.
+ */
+public record ClientCreatedEvent(Client client) {
+}
@@ -0,0 +1,10 @@
+package com.wealthsearch.service.event;
+
+import com.wealthsearch.model.entity.Document;
+
+/**
+ * Published by {@link com.wealthsearch.service.DocumentServiceImpl} for every persisted document. Listeners that
+ * keep derived state should consume it after commit.
+ */
+public record DocumentCreatedEvent(Document document) {
+}
@@ -0,0 +1,38 @@
+package com.wealthsearch.service.search;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Loads a missing entry of an {@link AsyncCache} on the calling thread. Only the future is installed inside the
+ * cache's mapping, so a slow load never holds a lock shared with other keys; concurrent callers of the same key wait
+ * on the first caller's future instead of loading again. A failed load is removed by the cache and rethrown to every
+ * caller that waited on it.
+ */
+final class CallerLoadedCache {
+
+    private CallerLoadedCache() {
+    }
+
+    static <K, V> V get(AsyncCache<K, V> cache, K key, Supplier<V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> entry = cache.get(key, (ignored, executor) -> loading);
+
+        if (entry == loading) {
+            try {
+                loading.complete(loader.get());
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
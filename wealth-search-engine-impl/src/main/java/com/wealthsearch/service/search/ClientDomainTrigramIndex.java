@@ -0,0 +1,230 @@
+package com.wealthsearch.service.search;
+
+import com.wealthsearch.model.entity.Client;
+import com.wealthsearch.utils.TrigramUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of client domain names. Every distinct domain gets an ordinal, postings map a packed
+ * trigram to the ordinals of the domains containing it, and each domain keeps the ordinals of its clients. Matching
+ * and scoring mirror {@code JooqClientRepository#findClientsByCompanyDomain}.
+ */
+class ClientDomainTrigramIndex {
+
+    /**
+     * Order of the {@code uuid} type in Postgres: unsigned, byte by byte.
+     */
+    static final Comparator<UUID> POSTGRES_UUID_ORDER =
+            Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+                      .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    static final Comparator<Match> RANKING = Comparator.comparingDouble(Match::score)
+                                                       .reversed()
+                                                       .thenComparing(match -> match.client()
+                                                                                    .getId(), POSTGRES_UUID_ORDER);
+
+    private static final int SHORT_WORD_LENGTH = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Integer> clientOrdinals = new HashMap<>();
+
+    private final List<Client> clients = new ArrayList<>();
+
+    private final Map<String, Integer> domainOrdinals = new HashMap<>();
+
+    private final List<Domain> domains = new ArrayList<>();
+
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    /**
+     * Adds a client, ignoring clients that are already indexed.
+     */
+    void add(Client client) {
+        if (client == null || client.getId() == null || client.getDomainName() == null) {
+            return;
+        }
+
+        lock.writeLock()
+            .lock();
+        try {
+            if (clientOrdinals.containsKey(client.getId())) {
+                return;
+            }
+
+            int clientOrdinal = clients.size();
+            clients.add(client.toBuilder()
+                              .build());
+            clientOrdinals.put(client.getId(), clientOrdinal);
+
+            domainFor(client.getDomainName()).clientOrdinals()
+                                             .add(clientOrdinal);
+        } finally {
+            lock.writeLock()
+                .unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock()
+            .lock();
+        try {
+            return clients.size();
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    /**
+     * Finds every client whose domain satisfies all words and returns them ranked by score, then by id.
+     */
+    List<Match> search(List<String> words) {
+        if (words == null || words.isEmpty()) {
+            throw new IllegalArgumentException("At least one candidate must be provided");
+        }
+
+        List<QueryWord> queryWords = words.stream()
+                                          .map(word -> new QueryWord(word, TrigramUtils.trigramSet(word)))
+                                          .toList();
+
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock()
+            .lock();
+        try {
+            BitSet candidates = collectCandidates(queryWords);
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                Domain domain = domains.get(ordinal);
+                float score = scoreIfMatches(domain, queryWords);
+                if (score < 0) {
+                    continue;
+                }
+
+                IntList domainClients = domain.clientOrdinals();
+                for (int i = 0; i < domainClients.size(); i++) {
+                    matches.add(new Match(clients.get(domainClients.get(i)), score));
+                }
+            }
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+
+        matches.sort(RANKING);
+        return matches;
+    }
+
+    private Domain domainFor(String domainName) {
+        Integer existing = domainOrdinals.get(domainName);
+        if (existing != null) {
+            return domains.get(existing);
+        }
+
+        int ordinal = domains.size();
+        Domain domain = new Domain(domainName, TrigramUtils.trigramSet(domainName),
+                TrigramUtils.trigramSequence(domainName), new IntList());
+        domains.add(domain);
+        domainOrdinals.put(domainName, ordinal);
+
+        for (long trigram : domain.trigramSet()) {
+            postings.computeIfAbsent(trigram, key -> new IntList())
+                    .add(ordinal);
+        }
+        return domain;
+    }
+
+    private BitSet collectCandidates(List<QueryWord> queryWords) {
+        // every word must match, so the postings of one trigram-matched word are enough to bound the candidates
+        QueryWord driver = queryWords.stream()
+                                     .filter(word -> !word.isShort())
+                                     .findFirst()
+                                     .orElse(null);
+
+        BitSet candidates = new BitSet(domains.size());
+        if (driver == null) {
+            candidates.set(0, domains.size());
+            return candidates;
+        }
+
+        for (long trigram : driver.trigrams()) {
+            IntList domainOrdinalsForTrigram = postings.get(trigram);
+            if (domainOrdinalsForTrigram == null) {
+                continue;
+            }
+            for (int i = 0; i < domainOrdinalsForTrigram.size(); i++) {
+                candidates.set(domainOrdinalsForTrigram.get(i));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @return the score of the domain, or a negative value when one of the words does not match
+     */
+    private float scoreIfMatches(Domain domain, List<QueryWord> queryWords) {
+        float score = 0f;
+        for (QueryWord word : queryWords) {
+            float similarity = TrigramUtils.similarity(domain.trigramSet(), word.trigrams());
+            float wordSimilarity = TrigramUtils.wordSimilarity(word.trigrams(), domain.trigramSequence());
+
+            boolean matches = word.isShort() ? domain.name()
+                                                     .contains(word.value())
+                    : similarity >= TrigramUtils.SIMILARITY_THRESHOLD
+                            || wordSimilarity >= TrigramUtils.WORD_SIMILARITY_THRESHOLD;
+
+            if (!matches) {
+                return -1f;
+            }
+            score = Math.max(score, Math.max(similarity, wordSimilarity));
+        }
+        return score;
+    }
+
+    record Match(Client client, float score) {
+    }
+
+    private record QueryWord(String value, long[] trigrams) {
+
+        boolean isShort() {
+            return value.length() < SHORT_WORD_LENGTH;
+        }
+    }
+
+    private record Domain(String name, long[] trigramSet, long[] trigramSequence, IntList clientOrdinals) {
+    }
+
+    /**
+     * Growable list of primitive ints, used for postings and domain membership.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
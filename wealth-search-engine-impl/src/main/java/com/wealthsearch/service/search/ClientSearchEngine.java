@@ -0,0 +1,15 @@
+package com.wealthsearch.service.search;
+
+import com.wealthsearch.model.entity.search.ClientSearchHit;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import com.wealthsearch.model.entity.search.SearchResult;
+import java.util.List;
+
+/**
+ * Executes fuzzy client search over company domain names. The implementation is selected with
+ * {@code search.clients-search.engine}.
+ */
+public interface ClientSearchEngine {
+
+    SearchResult<ClientSearchHit> search(List<String> words, PaginationParams paginationParams);
+}
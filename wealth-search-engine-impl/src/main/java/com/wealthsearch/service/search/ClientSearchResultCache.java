@@ -0,0 +1,65 @@
+package com.wealthsearch.service.search;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wealthsearch.model.entity.search.ClientSearchHit;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import com.wealthsearch.model.entity.search.SearchResult;
+import com.wealthsearch.service.event.ClientCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Caches client search pages by normalized query words and pagination. Every committed client insert bumps a
+ * write version that is part of the key, so pages computed before the insert are never served afterwards and
+ * simply age out of the cache. The version only moves on inserts committed through this JVM; a client created on
+ * another node reaches this node's cached pages once they expire. Pages are loaded on the requesting thread, see
+ * {@link CallerLoadedCache}.
+ */
+@Component
+public class ClientSearchResultCache {
+
+    static final String CACHE_NAME = "search.clients";
+
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    private final AsyncCache<Key, SearchResult<ClientSearchHit>> cache;
+
+    public ClientSearchResultCache(MeterRegistry meterRegistry,
+            @Value("${search.clients-search.result-cache.maximum-size:10000}") long maximumSize,
+            @Value("${search.clients-search.result-cache.expire-after:10m}") Duration expireAfter) {
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(Math.max(1, maximumSize))
+                             .expireAfterWrite(expireAfter)
+                             .recordStats()
+                             .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public SearchResult<ClientSearchHit> get(List<String> words, PaginationParams paginationParams,
+            Supplier<SearchResult<ClientSearchHit>> loader) {
+        Key key = new Key(List.copyOf(words), paginationParams, writeVersion.get());
+        return CallerLoadedCache.get(cache, key, loader);
+    }
+
+    // runs after the in-memory engine has indexed the client, so a page loaded under the new version includes it
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClientCreated(ClientCreatedEvent event) {
+        writeVersion.incrementAndGet();
+    }
+
+    private record Key(List<String> words, PaginationParams paginationParams, long writeVersion) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.wealthsearch.service.search;
+
+import com.wealthsearch.db.repository.ClientRepository;
+import com.wealthsearch.model.entity.search.ClientSearchHit;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import com.wealthsearch.model.entity.search.SearchResult;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "search.clients-search", name = "engine", havingValue = "database",
+        matchIfMissing = true)
+public class DatabaseClientSearchEngine implements ClientSearchEngine {
+
+    private final ClientRepository clientRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public SearchResult<ClientSearchHit> search(List<String> words, PaginationParams paginationParams) {
+        return clientRepository.findClientsByCompanyDomain(words, paginationParams);
+    }
+}
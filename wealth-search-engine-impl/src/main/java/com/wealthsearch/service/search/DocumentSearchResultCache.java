@@ -0,0 +1,91 @@
+package com.wealthsearch.service.search;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wealthsearch.model.entity.Document;
+import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import com.wealthsearch.model.entity.search.SearchResult;
+import com.wealthsearch.service.event.DocumentCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Caches document search pages by the sorted expanded term set, search options and pagination. Pages may hold
+ * full document contents, so the cache is bounded by an estimate of the retained size rather than by entry count. Every
+ * committed document insert bumps a write version that is part of the key. The version only moves on inserts
+ * committed through this JVM; a document created on another node reaches this node's cached pages once they expire.
+ * Pages are loaded on the requesting thread, see {@link CallerLoadedCache}.
+ */
+@Component
+public class DocumentSearchResultCache {
+
+    static final String CACHE_NAME = "search.documents";
+
+    private static final int RESULT_OVERHEAD_BYTES = 128;
+
+    private static final int HIT_OVERHEAD_BYTES = 256;
+
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    private final AsyncCache<Key, SearchResult<DocumentSearchHit>> cache;
+
+    public DocumentSearchResultCache(MeterRegistry meterRegistry,
+            @Value("${search.documents-search.result-cache.maximum-weight:64MB}") DataSize maximumWeight,
+            @Value("${search.documents-search.result-cache.expire-after:10m}") Duration expireAfter) {
+        this.cache = Caffeine.newBuilder()
+                             .maximumWeight(Math.max(1, maximumWeight.toBytes()))
+                             .weigher((Key key, SearchResult<DocumentSearchHit> page) -> weigh(page))
+                             .expireAfterWrite(expireAfter)
+                             .recordStats()
+                             .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public SearchResult<DocumentSearchHit> get(Set<String> searchTerms, DocumentSearchOptions options,
+            PaginationParams paginationParams, Supplier<SearchResult<DocumentSearchHit>> loader) {
+        Key key = new Key(List.copyOf(new TreeSet<>(searchTerms)), options, paginationParams, writeVersion.get());
+        return CallerLoadedCache.get(cache, key, loader);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDocumentCreated(DocumentCreatedEvent event) {
+        writeVersion.incrementAndGet();
+    }
+
+    static int weigh(SearchResult<DocumentSearchHit> page) {
+        long bytes = RESULT_OVERHEAD_BYTES;
+
+        for (DocumentSearchHit hit : page.getResults()) {
+            Document document = hit.getDocument();
+            bytes += HIT_OVERHEAD_BYTES;
+            if (document != null) {
+                bytes += 2L * (length(document.getTitle()) + length(document.getContent()));
+            }
+            bytes += 2L * length(hit.getSnippet());
+        }
+
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record Key(List<String> searchTerms, DocumentSearchOptions options, PaginationParams paginationParams,
+                       long writeVersion) {
+    }
+}
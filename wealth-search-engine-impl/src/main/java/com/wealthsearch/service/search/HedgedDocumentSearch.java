@@ -0,0 +1,177 @@
+package com.wealthsearch.service.search;
+
+import com.wealthsearch.api.ollama.SemanticSearchQueryExpander;
+import com.wealthsearch.model.entity.search.DocumentSearchCursor;
+import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import com.wealthsearch.model.entity.search.SearchResult;
+import com.wealthsearch.model.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the literal full-text search while the query expansion is still in flight. A cached expansion is searched
+ * right away; otherwise the expanded search is used when the expansion arrives within the latency budget, and the
+ * literal page is returned with the expanded page loaded into the result cache in the background when it does not,
+ * so the next request for the query finds both warm. The budget is the only one applied to the expansion: the
+ * generation itself runs on the expander's pool and is awaited here through its cache future.
+ * <p>
+ * A cursor page is searched with the term set its cursor carries instead of hedging again, so every page reached
+ * through cursors comes from the result set of the first page. Offset pages are hedged like first pages and may switch
+ * to the expansion once it lands; a stable walk through the results needs cursors.
+ */
+@Slf4j
+@Component
+public class HedgedDocumentSearch {
+
+    static final String OUTCOME_METRIC = "search.documents.expansion";
+
+    private final SemanticSearchQueryExpander searchQueryExpander;
+
+    private final Duration expansionBudget;
+
+    private final ThreadPoolExecutor warmUpExecutor;
+
+    private final Counter cached;
+
+    private final Counter inTime;
+
+    private final Counter late;
+
+    private final Counter failed;
+
+    private final Counter rejected;
+
+    public HedgedDocumentSearch(SemanticSearchQueryExpander searchQueryExpander, MeterRegistry meterRegistry,
+            @Value("${search.documents-search.hedging.expansion-budget:800ms}") Duration expansionBudget,
+            @Value("${search.documents-search.hedging.max-concurrent-warm-ups:4}") int maxConcurrentWarmUps) {
+        this.searchQueryExpander = searchQueryExpander;
+        this.expansionBudget = expansionBudget;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("expansion-warm-up-");
+        threadFactory.setDaemon(true);
+        // warm-ups beyond the limit are dropped instead of queued, the next request for the query runs the search
+        this.warmUpExecutor = new ThreadPoolExecutor(maxConcurrentWarmUps, maxConcurrentWarmUps, 60L, TimeUnit.SECONDS,
+                                                     new SynchronousQueue<>(), threadFactory,
+                                                     new ThreadPoolExecutor.AbortPolicy());
+        this.warmUpExecutor.allowCoreThreadTimeOut(true);
+
+        this.cached = outcomeCounter(meterRegistry, "cached");
+        this.inTime = outcomeCounter(meterRegistry, "in_time");
+        this.late = outcomeCounter(meterRegistry, "late");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+        this.rejected = outcomeCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * @param searchByTerms runs (or serves from cache) the search for a term set with the given options and
+     *                      pagination; called at most once per term set
+     */
+    public SearchResult<DocumentSearchHit> search(String query, PaginationParams pagination,
+            Function<Set<String>, SearchResult<DocumentSearchHit>> searchByTerms) {
+        if (pagination.hasCursor()) {
+            return searchByTerms.apply(termSetOfCursor(query, pagination.getCursor()));
+        }
+        return hedge(query, searchByTerms);
+    }
+
+    /**
+     * The term set a cursor was issued for, as the cursor carries it: the literal query or the expansion the first
+     * page was searched with, even when the expansion has changed since. Its filters are checked against the
+     * cursor's fingerprint by the search itself.
+     */
+    public Set<String> termSetOfCursor(String query, String encodedCursor) {
+        Set<String> searchTerms = DocumentSearchCursor.decode(encodedCursor)
+                                                      .searchTerms();
+        // every term set searched for a query contains the query itself
+        if (!searchTerms.contains(query)) {
+            throw new BadRequestException("Cursor was issued for a different query");
+        }
+        return searchTerms;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        warmUpExecutor.shutdownNow();
+    }
+
+    private SearchResult<DocumentSearchHit> hedge(String query, Function<Set<String>, SearchResult<DocumentSearchHit>> searchByTerms) {
+        long deadline = System.nanoTime() + expansionBudget.toNanos();
+        Set<String> literalTerms = Set.of(query);
+        CompletableFuture<Set<String>> expansion = searchQueryExpander.expandQueryWithSynonymsAsync(query);
+
+        // a cached expansion needs no literal search to hedge against
+        if (expansion.isDone() && !expansion.isCompletedExceptionally()) {
+            cached.increment();
+            return searchByTerms.apply(expansion.join());
+        }
+
+        SearchResult<DocumentSearchHit> literalPage = searchByTerms.apply(literalTerms);
+
+        Set<String> expandedTerms;
+        try {
+            expandedTerms = expansion.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            late.increment();
+            warmUpWhenExpanded(expansion, searchByTerms);
+            return literalPage;
+        } catch (ExecutionException e) {
+            if (isRejection(e.getCause())) {
+                rejected.increment();
+            } else {
+                failed.increment();
+                log.warn("Query expansion failed, serving literal results", e.getCause());
+            }
+            return literalPage;
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            return literalPage;
+        }
+
+        inTime.increment();
+        // the expanded tsquery ORs the literal query with its expansions, so its ranking already covers the
+        // literal matches
+        return expandedTerms.equals(literalTerms) ? literalPage
+                : searchByTerms.apply(expandedTerms);
+    }
+
+    private void warmUpWhenExpanded(CompletableFuture<Set<String>> expansion,
+            Function<Set<String>, SearchResult<DocumentSearchHit>> searchByTerms) {
+        expansion.thenAcceptAsync(searchByTerms::apply, warmUpExecutor)
+                 .exceptionally(e -> {
+                     log.debug("Background search for late expansion was not cached", e);
+                     return null;
+                 });
+    }
+
+    private static boolean isRejection(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(OUTCOME_METRIC)
+                      .description("Query expansions by whether they made the latency budget of a document search")
+                      .tag("outcome", outcome)
+                      .register(meterRegistry);
+    }
+}
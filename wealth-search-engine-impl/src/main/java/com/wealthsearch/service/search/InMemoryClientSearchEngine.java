@@ -0,0 +1,122 @@
+package com.wealthsearch.service.search;
+
+import com.wealthsearch.db.repository.ClientRepository;
+import com.wealthsearch.model.entity.search.ClientSearchCursor;
+import com.wealthsearch.model.entity.search.ClientSearchHit;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import com.wealthsearch.model.entity.search.SearchResult;
+import com.wealthsearch.service.event.ClientCreatedEvent;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serves client search from a {@link ClientDomainTrigramIndex} held in the JVM. The index is loaded once the
+ * application is ready and extended after every committed client insert; until it is loaded searches go to the
+ * database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "search.clients-search", name = "engine", havingValue = "in-memory")
+public class InMemoryClientSearchEngine implements ClientSearchEngine {
+
+    private final ClientRepository clientRepository;
+
+    private final ClientDomainTrigramIndex index = new ClientDomainTrigramIndex();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long started = System.nanoTime();
+        clientRepository.forEachClient(index::add);
+        ready = true;
+        log.info("Client domain index loaded with {} clients in {} ms", index.size(),
+                 (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // indexes the client before the result cache moves to a new version, see ClientSearchResultCache
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClientCreated(ClientCreatedEvent event) {
+        index.add(event.client());
+    }
+
+    @Override
+    public SearchResult<ClientSearchHit> search(List<String> words, PaginationParams paginationParams) {
+        if (!ready) {
+            return clientRepository.findClientsByCompanyDomain(words, paginationParams);
+        }
+
+        ClientSearchCursor cursor = paginationParams.hasCursor()
+                ? ClientSearchCursor.decode(paginationParams.getCursor(), words)
+                : null;
+
+        List<ClientDomainTrigramIndex.Match> matches = index.search(words);
+        if (matches.isEmpty()) {
+            return new SearchResult<ClientSearchHit>();
+        }
+
+        int from = cursor != null
+                ? this.positionAfter(matches, cursor)
+                : Math.min(paginationParams.getOffset(), matches.size());
+        int to = Math.min(from + paginationParams.getLimit(), matches.size());
+
+        List<ClientSearchHit> results = matches.subList(from, to)
+                                               .stream()
+                                               .map(this::toSearchHit)
+                                               .toList();
+
+        SearchResult<ClientSearchHit> page = SearchResult.<ClientSearchHit>builder()
+                                                         .results(results)
+                                                         .totalCount(matches.size())
+                                                         .build();
+
+        if (to < matches.size()) {
+            return page.toBuilder()
+                       .nextCursor(ClientSearchCursor.after(results.getLast(), matches.size(), words)
+                                                     .encode())
+                       .build();
+        }
+
+        return page;
+    }
+
+    private int positionAfter(List<ClientDomainTrigramIndex.Match> matches, ClientSearchCursor cursor) {
+        float cursorScore = (float) cursor.score();
+
+        for (int i = 0; i < matches.size(); i++) {
+            ClientDomainTrigramIndex.Match match = matches.get(i);
+            UUID clientId = match.client()
+                                 .getId();
+            int scoreOrder = Float.compare(cursorScore, match.score());
+
+            boolean ranksAfterCursor = scoreOrder > 0 || scoreOrder == 0
+                    && ClientDomainTrigramIndex.POSTGRES_UUID_ORDER.compare(clientId, cursor.id()) > 0;
+
+            if (ranksAfterCursor) {
+                return i;
+            }
+        }
+
+        return matches.size();
+    }
+
+    private ClientSearchHit toSearchHit(ClientDomainTrigramIndex.Match match) {
+        // pg_trgm scores are float4; going through the decimal text form yields the double the JDBC driver reports
+        double score = Double.parseDouble(Float.toString(match.score()));
+        return new ClientSearchHit(match.client()
+                                        .toBuilder()
+                                        .build(), score);
+    }
+}
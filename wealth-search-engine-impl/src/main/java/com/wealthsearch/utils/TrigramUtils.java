@@ -0,0 +1,222 @@
+package com.wealthsearch.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Java port of the pg_trgm similarity functions used by client search, so that scores computed in the JVM match
+ * the ones Postgres returns for {@code similarity()} and {@code word_similarity()}.
+ */
+public final class TrigramUtils {
+
+    /**
+     * Default of {@code pg_trgm.similarity_threshold}, used by the {@code %} operator.
+     */
+    public static final double SIMILARITY_THRESHOLD = 0.3;
+
+    /**
+     * Default of {@code pg_trgm.word_similarity_threshold}, used by the {@code <%} operator.
+     */
+    public static final double WORD_SIMILARITY_THRESHOLD = 0.6;
+
+    private static final long[] EMPTY = new long[0];
+
+    private TrigramUtils() {}
+
+    /**
+     * Trigrams of every word in {@code value} in their original order, duplicates retained.
+     */
+    public static long[] trigramSequence(String value) {
+        if (value == null || value.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<Long> trigrams = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= value.length(); i++) {
+            char current = i < value.length() ? value.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(current)) {
+                word.append(Character.toLowerCase(current));
+            } else if (!word.isEmpty()) {
+                appendWordTrigrams(word, trigrams);
+                word.setLength(0);
+            }
+        }
+
+        long[] result = new long[trigrams.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = trigrams.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Sorted, de-duplicated trigrams of {@code value}.
+     */
+    public static long[] trigramSet(String value) {
+        long[] sequence = trigramSequence(value);
+        if (sequence.length == 0) {
+            return sequence;
+        }
+
+        long[] sorted = sequence.clone();
+        Arrays.sort(sorted);
+
+        int unique = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+    /**
+     * Equivalent of {@code similarity(a, b)} for two trigram sets produced by {@link #trigramSet(String)}.
+     */
+    public static float similarity(long[] first, long[] second) {
+        if (first.length == 0 || second.length == 0) {
+            return 0f;
+        }
+
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] == second[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (first[i] < second[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return calculateSimilarity(common, first.length, second.length);
+    }
+
+    /**
+     * Equivalent of {@code word_similarity(query, target)}: the greatest similarity between the trigram set of the
+     * query and any continuous extent of the ordered trigrams of the target. Follows the extent search of pg_trgm's
+     * {@code iterate_word_similarity}, so results are identical and not merely close.
+     *
+     * @param querySet trigram set of the query, see {@link #trigramSet(String)}
+     * @param targetSequence ordered trigrams of the target, see {@link #trigramSequence(String)}
+     */
+    public static float wordSimilarity(long[] querySet, long[] targetSequence) {
+        if (querySet.length == 0 || targetSequence.length == 0) {
+            return 0f;
+        }
+
+        Map<Long, Integer> uniqueIndexes = new HashMap<>();
+        int[] indexes = new int[targetSequence.length];
+        List<Boolean> foundInQuery = new ArrayList<>();
+        for (int i = 0; i < targetSequence.length; i++) {
+            long trigram = targetSequence[i];
+            Integer index = uniqueIndexes.get(trigram);
+            if (index == null) {
+                index = uniqueIndexes.size();
+                uniqueIndexes.put(trigram, index);
+                foundInQuery.add(Arrays.binarySearch(querySet, trigram) >= 0);
+            }
+            indexes[i] = index;
+        }
+
+        boolean[] found = new boolean[foundInQuery.size()];
+        for (int i = 0; i < found.length; i++) {
+            found[i] = foundInQuery.get(i);
+        }
+
+        return iterateWordSimilarity(indexes, found, querySet.length);
+    }
+
+    private static float iterateWordSimilarity(int[] indexes, boolean[] found, int queryLength) {
+        int[] lastPositions = new int[found.length];
+        Arrays.fill(lastPositions, -1);
+
+        int lower = -1;
+        int count = 0;
+        int extentLength = 0;
+        float maxSimilarity = 0f;
+
+        for (int i = 0; i < indexes.length; i++) {
+            int index = indexes[i];
+
+            if (lower >= 0 || found[index]) {
+                if (lastPositions[index] < 0) {
+                    extentLength++;
+                    if (found[index]) {
+                        count++;
+                    }
+                }
+                lastPositions[index] = i;
+            }
+
+            if (!found[index]) {
+                continue;
+            }
+
+            int upper = i;
+            if (lower == -1) {
+                lower = i;
+                extentLength = 1;
+            }
+
+            float currentSimilarity = calculateSimilarity(count, queryLength, extentLength);
+
+            // try to move the lower bound forward for a greater similarity
+            int candidateCount = count;
+            int candidateLength = extentLength;
+            int previousLower = lower;
+            for (int candidateLower = lower; candidateLower <= upper; candidateLower++) {
+                float candidateSimilarity = calculateSimilarity(candidateCount, queryLength, candidateLength);
+                if (candidateSimilarity > currentSimilarity) {
+                    currentSimilarity = candidateSimilarity;
+                    extentLength = candidateLength;
+                    lower = candidateLower;
+                    count = candidateCount;
+                }
+
+                int candidateIndex = indexes[candidateLower];
+                if (lastPositions[candidateIndex] == candidateLower) {
+                    candidateLength--;
+                    if (found[candidateIndex]) {
+                        candidateCount--;
+                    }
+                }
+            }
+
+            maxSimilarity = Math.max(maxSimilarity, currentSimilarity);
+
+            for (int dropped = previousLower; dropped < lower; dropped++) {
+                int droppedIndex = indexes[dropped];
+                if (lastPositions[droppedIndex] == dropped) {
+                    lastPositions[droppedIndex] = -1;
+                }
+            }
+        }
+
+        return maxSimilarity;
+    }
+
+    private static float calculateSimilarity(int common, int firstLength, int secondLength) {
+        return (float) common / (float) (firstLength + secondLength - common);
+    }
+
+    private static void appendWordTrigrams(CharSequence word, List<Long> trigrams) {
+        // pg_trgm pads every word with two leading blanks and one trailing blank
+        String padded = "  " + word + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(pack(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+        }
+    }
+
+    private static long pack(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+}
@@ -0,0 +1,134 @@
+package com.wealthsearch.ollama;
+
+import com.wealthsearch.db.repository.QueryExpansionRepository;
+import com.wealthsearch.model.entity.QueryExpansion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QueryExpansionStoreTest {
+
+    private static final ExpansionKey KEY = new ExpansionKey("wealth", "llama", "v1");
+
+    @Mock
+    private QueryExpansionRepository repository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private QueryExpansionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new QueryExpansionStore(repository, meterRegistry, Duration.ofDays(7), Duration.ofHours(1), 2, 3,
+                                        Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void findReadsStoredTerms() {
+        when(repository.findUnexpired(eq("wealth"), eq("llama"), eq("v1"), any())).thenReturn(Optional.of(
+                QueryExpansion.builder()
+                              .terms("[\"wealth\",\"assets\"]")
+                              .build()));
+
+        assertThat(store.find(KEY)).contains(Set.of("wealth", "assets"));
+        assertThat(outcomeCount("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void findTreatsStoreFailureAsMiss() {
+        when(repository.findUnexpired(any(), any(), any(), any())).thenThrow(
+                new DataAccessResourceFailureException("connection refused"));
+
+        assertThat(store.find(KEY)).isEmpty();
+        assertThat(outcomeCount("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void flushWritesQueuedExpansionsInBatches() {
+        List<List<QueryExpansion>> batches = new ArrayList<>();
+        doAnswer(invocation -> batches.add(List.copyOf(invocation.<Collection<QueryExpansion>>getArgument(0))))
+                .when(repository)
+                .upsertAll(anyCollection());
+
+        store.save(KEY, Set.of("wealth"));
+        store.save(KEY, Set.of("wealth", "assets"));
+        store.save(new ExpansionKey("tax", "llama", "v1"), Set.of("tax"));
+        store.save(new ExpansionKey("fund", "llama", "v1"), Set.of("fund"));
+        store.flush();
+
+        assertThat(batches).extracting(List::size)
+                           .containsExactly(2, 1);
+        QueryExpansion wealth = batches.stream()
+                                       .flatMap(List::stream)
+                                       .filter(expansion -> expansion.getNormalizedQuery()
+                                                                     .equals("wealth"))
+                                       .findFirst()
+                                       .orElseThrow();
+        assertThat(wealth.getTerms()).contains("assets");
+        assertThat(wealth.getExpiresAt()).isAfter(OffsetDateTime.now()
+                                                                .plusDays(6));
+        assertThat(outcomeCount("written")).isEqualTo(3);
+    }
+
+    @Test
+    void saveDropsWritesBeyondPendingLimit() {
+        store.save(KEY, Set.of("wealth"));
+        store.save(new ExpansionKey("tax", "llama", "v1"), Set.of("tax"));
+        store.save(new ExpansionKey("fund", "llama", "v1"), Set.of("fund"));
+        store.save(new ExpansionKey("bond", "llama", "v1"), Set.of("bond"));
+
+        assertThat(outcomeCount("dropped")).isEqualTo(1);
+        verify(repository, never()).upsertAll(anyCollection());
+    }
+
+    @Test
+    void flushCountsFailedBatchAsDropped() {
+        ArgumentCaptor<Collection<QueryExpansion>> batch = ArgumentCaptor.forClass(Collection.class);
+        doAnswer(invocation -> {
+            throw new DataAccessResourceFailureException("connection refused");
+        }).when(repository)
+          .upsertAll(batch.capture());
+
+        store.save(KEY, Set.of("wealth"));
+        store.flush();
+
+        assertThat(batch.getValue()).hasSize(1);
+        assertThat(outcomeCount("dropped")).isEqualTo(1);
+    }
+
+    private double outcomeCount(String outcome) {
+        return meterRegistry.get(QueryExpansionStore.METRIC)
+                            .tag("outcome", outcome)
+                            .counter()
+                            .count();
+    }
+}
@@ -0,0 +1,108 @@
+package com.wealthsearch.ollama.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void tryAcquireRejectsCallsBeyondLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertThat(limiter.tryAcquire()).isPresent();
+        assertThat(limiter.tryAcquire()).isPresent();
+        assertThat(limiter.tryAcquire()).isEmpty();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void completedPermitFreesSlot() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+
+        limiter.tryAcquire()
+               .orElseThrow()
+               .onIgnore();
+
+        assertThat(limiter.tryAcquire()).isPresent();
+    }
+
+    @Test
+    void failuresBackOffLimitDownToMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 10);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire()
+                   .orElseThrow()
+                   .onFailure();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void steadyLatencyAtFullUtilisationGrowsLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 50);
+
+        for (int round = 0; round < 20; round++) {
+            completeAll(acquireAll(limiter), 0);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(4);
+    }
+
+    @Test
+    void risingLatencyShrinksLimitUntilLatencyRecovers() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 50);
+
+        for (int round = 0; round < 10; round++) {
+            completeAll(acquireAll(limiter), 2);
+        }
+        int limitBeforeSlowdown = limiter.getLimit();
+        for (int round = 0; round < 3; round++) {
+            completeAll(acquireAll(limiter), 40);
+        }
+        int limitAfterSlowdown = limiter.getLimit();
+        for (int round = 0; round < 5; round++) {
+            completeAll(acquireAll(limiter), 2);
+        }
+
+        assertThat(limitAfterSlowdown).isLessThan(limitBeforeSlowdown / 2);
+        assertThat(limiter.getLimit()).isGreaterThan(limitAfterSlowdown);
+    }
+
+    @Test
+    void underUtilisedLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 50);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire()
+                   .orElseThrow()
+                   .onSuccess();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    private static List<AdaptiveConcurrencyLimiter.Permit> acquireAll(AdaptiveConcurrencyLimiter limiter) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        while (true) {
+            var permit = limiter.tryAcquire();
+            if (permit.isEmpty()) {
+                return permits;
+            }
+            permits.add(permit.get());
+        }
+    }
+
+    private static void completeAll(List<AdaptiveConcurrencyLimiter.Permit> permits, long delayMillis) {
+        if (delayMillis > 0) {
+            LockSupport.parkNanos(delayMillis * 1_000_000);
+        }
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::onSuccess);
+    }
+}
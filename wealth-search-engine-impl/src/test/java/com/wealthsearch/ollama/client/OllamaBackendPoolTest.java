@@ -0,0 +1,168 @@
+package com.wealthsearch.ollama.client;
+
+import com.wealthsearch.ollama.client.confiuration.OllamaBackendProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OllamaBackendPoolTest {
+
+    private final List<StubOllamaServer> stubs = new ArrayList<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private final AtomicLong nanoClock = new AtomicLong();
+
+    private final OllamaBackendProperties properties = new OllamaBackendProperties();
+
+    private final AtomicReference<CountDownLatch> holdNext = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (String name : List.of("a", "b", "c")) {
+            stubs.add(new StubOllamaServer(name, holdNext));
+        }
+        properties.setBaseUrls(stubs.stream()
+                                    .map(StubOllamaServer::baseUrl)
+                                    .toList());
+        properties.setEjectAfterFailures(2);
+        properties.setBaseEjectionTime(Duration.ofSeconds(30));
+        properties.setMaxEjectionTime(Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubs.forEach(StubOllamaServer::stop);
+    }
+
+    @Test
+    void callsGoToTheBackendWithFewestOutstandingRequests() throws Exception {
+        OllamaBackendPool pool = pool();
+        StubOllamaServer slow = stubs.get(0);
+        CountDownLatch release = new CountDownLatch(1);
+        holdNext.set(release);
+
+        CompletableFuture<String> held = CompletableFuture.supplyAsync(() -> pool.call(prompt()));
+        assertThat(slow.held.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<String> answeredBy = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            answeredBy.add(pool.call(prompt()));
+        }
+        release.countDown();
+
+        assertThat(held.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(answeredBy).containsOnly("b", "c")
+                              .contains("b", "c");
+    }
+
+    @Test
+    void backendFailingConsecutiveCallsIsEjectedUntilTheEjectionTimePasses() {
+        OllamaBackendPool pool = pool();
+        StubOllamaServer failing = stubs.get(0);
+        failing.status.set(500);
+
+        // the first call of each rotation starts at the failing backend
+        for (int i = 0; i < 6; i++) {
+            try {
+                pool.call(prompt());
+            } catch (RuntimeException ignored) {
+                // the failing backend answered
+            }
+        }
+
+        assertThat(failing.requests.get()).isEqualTo(2);
+        assertThat(meterRegistry.get(OllamaBackendPool.EJECTIONS_METRIC)
+                                .tag("backend", failing.backendName())
+                                .counter()
+                                .count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get(OllamaBackendPool.AVAILABLE_METRIC)
+                                .tag("backend", failing.backendName())
+                                .gauge()
+                                .value()).isZero();
+
+        failing.status.set(200);
+        nanoClock.addAndGet(Duration.ofSeconds(31)
+                                    .toNanos());
+        List<String> answeredBy = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            answeredBy.add(pool.call(prompt()));
+        }
+
+        assertThat(answeredBy).contains("a");
+    }
+
+    @Test
+    void callsStillGoOutWhenEveryBackendIsEjected() {
+        properties.setEjectAfterFailures(1);
+        OllamaBackendPool pool = pool();
+        stubs.forEach(stub -> stub.status.set(500));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> pool.call(prompt())).isInstanceOf(RuntimeException.class);
+        }
+        assertThat(pool.getBackends()).allMatch(OllamaBackend::isEjected);
+
+        stubs.forEach(stub -> stub.status.set(200));
+        assertThat(pool.call(prompt())).isIn("a", "b", "c");
+    }
+
+    @Test
+    void eachBackendHasItsOwnCircuitBreakerInTheRegistry() {
+        OllamaBackendPool pool = pool();
+
+        assertThat(circuitBreakerRegistry.getAllCircuitBreakers()
+                                         .stream()
+                                         .map(CircuitBreaker::getName)).containsExactlyInAnyOrderElementsOf(
+                stubs.stream()
+                     .map(stub -> "SpringAiOllamaClient-" + stub.backendName())
+                     .toList());
+
+        pool.getBackends()
+            .get(0)
+            .getCircuitBreaker()
+            .transitionToOpenState();
+        for (int i = 0; i < 3; i++) {
+            assertThat(pool.call(prompt())).isNotEqualTo("a");
+        }
+    }
+
+    @Test
+    void defaultBaseUrlIsTheOnlyBackendWhenNoneAreConfigured() {
+        properties.setBaseUrls(List.of(" "));
+        OllamaBackendPool pool = new OllamaBackendPool(properties, stubs.get(1)
+                                                                        .baseUrl(), StubOllamaServer::chatClient,
+                                                       circuitBreakerRegistry, meterRegistry, nanoClock::get);
+
+        assertThat(pool.getBackends()).hasSize(1);
+        assertThat(pool.call(prompt())).isEqualTo("b");
+    }
+
+    private OllamaBackendPool pool() {
+        return new OllamaBackendPool(properties, "http://localhost:11434", StubOllamaServer::chatClient, circuitBreakerRegistry,
+                                     meterRegistry, nanoClock::get);
+    }
+
+    private static Prompt prompt() {
+        return new Prompt("which backend?");
+    }
+}
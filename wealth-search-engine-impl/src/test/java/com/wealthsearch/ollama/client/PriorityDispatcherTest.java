@@ -0,0 +1,143 @@
+package com.wealthsearch.ollama.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.wealthsearch.ollama.client.OllamaCallPriority.BACKGROUND;
+import static com.wealthsearch.ollama.client.OllamaCallPriority.INTERACTIVE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriorityDispatcherTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private final List<String> grantOrder = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void waitingInteractiveCallsAreServedBeforeWaitingBackgroundCalls() throws Exception {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(1, 1, 0.0);
+        PriorityDispatcher.Slot running = dispatcher.acquire(INTERACTIVE, WAIT)
+                                                    .orElseThrow();
+
+        CompletableFuture<PriorityDispatcher.Slot> summary = waitFor(dispatcher, BACKGROUND, "summary", 1);
+        CompletableFuture<PriorityDispatcher.Slot> expansion = waitFor(dispatcher, INTERACTIVE, "expansion", 1);
+
+        running.close();
+        expansion.get(5, TimeUnit.SECONDS)
+                 .close();
+        summary.get(5, TimeUnit.SECONDS)
+               .close();
+
+        assertThat(grantOrder).containsExactly("expansion", "summary");
+    }
+
+    @Test
+    void backgroundCallsGetTheirShareWhileInteractiveCallsKeepWaiting() throws Exception {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(1, 1, 0.5);
+        PriorityDispatcher.Slot running = dispatcher.acquire(INTERACTIVE, WAIT)
+                                                    .orElseThrow();
+
+        CompletableFuture<PriorityDispatcher.Slot> summary = waitFor(dispatcher, BACKGROUND, "summary", 1);
+        CompletableFuture<PriorityDispatcher.Slot> first = waitFor(dispatcher, INTERACTIVE, "first", 1);
+        CompletableFuture<PriorityDispatcher.Slot> second = waitFor(dispatcher, INTERACTIVE, "second", 2);
+
+        running.close();
+        first.get(5, TimeUnit.SECONDS)
+             .close();
+        summary.get(5, TimeUnit.SECONDS)
+               .close();
+        second.get(5, TimeUnit.SECONDS)
+              .close();
+
+        assertThat(grantOrder).containsExactly("first", "summary", "second");
+    }
+
+    @Test
+    void backgroundCallsNeverTakeSlotsReservedForInteractiveCalls() throws Exception {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(3, 1, 0.1);
+
+        PriorityDispatcher.Slot summary = dispatcher.acquire(BACKGROUND, WAIT)
+                                                    .orElseThrow();
+
+        assertThat(dispatcher.acquire(BACKGROUND, Duration.ofMillis(20))).isEmpty();
+        assertThat(dispatcher.acquire(INTERACTIVE, Duration.ZERO)).isPresent();
+        assertThat(dispatcher.acquire(INTERACTIVE, Duration.ZERO)).isPresent();
+        assertThat(dispatcher.acquire(INTERACTIVE, Duration.ZERO)).isEmpty();
+
+        summary.close();
+        summary.close();
+        assertThat(dispatcher.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void acquireGivesUpAfterMaxWait() throws Exception {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(1, 1, 0.1);
+        dispatcher.acquire(INTERACTIVE, WAIT)
+                  .orElseThrow();
+
+        assertThat(dispatcher.acquire(INTERACTIVE, Duration.ofMillis(20))).isEmpty();
+        assertThat(dispatcher.getWaiting(INTERACTIVE)).isZero();
+    }
+
+    @Test
+    void slotsFollowTheCurrentLimit() throws Exception {
+        AtomicInteger limit = new AtomicInteger(1);
+        PriorityDispatcher dispatcher = new PriorityDispatcher(limit::get, () -> 1, 0.1);
+        PriorityDispatcher.Slot first = dispatcher.acquire(INTERACTIVE, WAIT)
+                                                  .orElseThrow();
+
+        assertThat(dispatcher.acquire(INTERACTIVE, Duration.ZERO)).isEmpty();
+
+        limit.set(3);
+        PriorityDispatcher.Slot second = dispatcher.acquire(INTERACTIVE, Duration.ZERO)
+                                                   .orElseThrow();
+        PriorityDispatcher.Slot third = dispatcher.acquire(INTERACTIVE, Duration.ZERO)
+                                                  .orElseThrow();
+        assertThat(dispatcher.getInFlight()).isEqualTo(3);
+
+        // a shrinking limit lets the calls in flight finish and holds back new ones until they are below it
+        limit.set(1);
+        second.close();
+        third.close();
+        assertThat(dispatcher.acquire(INTERACTIVE, Duration.ZERO)).isEmpty();
+        first.close();
+        assertThat(dispatcher.acquire(INTERACTIVE, Duration.ZERO)).isPresent();
+    }
+
+    private CompletableFuture<PriorityDispatcher.Slot> waitFor(PriorityDispatcher dispatcher,
+            OllamaCallPriority priority, String name, int expectedWaiting) throws InterruptedException {
+        CompletableFuture<PriorityDispatcher.Slot> slot = CompletableFuture.supplyAsync(() -> {
+            try {
+                PriorityDispatcher.Slot granted = dispatcher.acquire(priority, WAIT)
+                                                            .orElseThrow();
+                grantOrder.add(name);
+                return granted;
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, callers);
+
+        // queue the callers in a known order
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (dispatcher.getWaiting(priority) < expectedWaiting && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,173 @@
+package com.wealthsearch.ollama.client;
+
+import com.wealthsearch.ollama.client.confiuration.OllamaBackendProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestHedgerTest {
+
+    private final AtomicReference<CountDownLatch> holdNext = new AtomicReference<>();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // every read of the hedger's clock moves it on by this step, so a call lasts exactly one step
+    private final AtomicLong clockStep = new AtomicLong();
+
+    private final AtomicLong clockNanos = new AtomicLong();
+
+    private StubOllamaServer first;
+
+    private StubOllamaServer second;
+
+    private OllamaBackendPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        first = new StubOllamaServer("first", holdNext);
+        second = new StubOllamaServer("second", holdNext);
+
+        OllamaBackendProperties properties = new OllamaBackendProperties();
+        properties.setBaseUrls(List.of(first.baseUrl(), second.baseUrl()));
+        pool = new OllamaBackendPool(properties, "http://localhost:11434", StubOllamaServer::chatClient,
+                                     CircuitBreakerRegistry.ofDefaults(), meterRegistry, System::nanoTime);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    void slowCallIsHedgedToTheOtherBackendAndTheSlowCallCancelled() throws Exception {
+        RequestHedger hedger = hedger(0.95, 1.0);
+        warmUp(hedger);
+
+        holdNext.set(release);
+        String answeredBy = hedger.call(prompt());
+
+        StubOllamaServer slow = first.held.getCount() == 0 ? first : second;
+        assertThat(answeredBy).isEqualTo(slow == first ? "second" : "first");
+        assertThat(hedger.getHedgesWon()).isEqualTo(1);
+        assertThat(awaitCancelled(slow)).isEqualTo(1.0);
+    }
+
+    @Test
+    void cancelledPrimaryCountsTowardsTheDelayWithItsFullLatency() throws Exception {
+        // at the 100th percentile the delay is the slowest latency seen
+        RequestHedger hedger = hedger(1.0, 1.0);
+        warmUp(hedger);
+
+        holdNext.set(release);
+        clockStep.set(TimeUnit.SECONDS.toNanos(5));
+        hedger.call(prompt());
+
+        assertThat(hedger.getHedgesWon()).isEqualTo(1);
+        assertThat(hedger.getDelayMillis()).isEqualTo(5000.0);
+    }
+
+    @Test
+    void nothingIsHedgedBeforeEnoughLatenciesAreKnown() throws Exception {
+        RequestHedger hedger = hedger(0.95, 1.0);
+        CountDownLatch shortHold = new CountDownLatch(1);
+        holdNext.set(shortHold);
+
+        // without a delay the hedger waits on the primary alone, so it is released once it is held
+        CompletableFuture<String> call = CompletableFuture.supplyAsync(() -> hedger.call(prompt()), executor);
+        awaitUntil(() -> holdNext.get() == null);
+        shortHold.countDown();
+        call.get(5, TimeUnit.SECONDS);
+
+        assertThat(hedger.getDelayMillis()).isEqualTo(-1);
+        assertThat(first.requests.get() + second.requests.get()).isEqualTo(1);
+        assertThat(hedger.getHedgesWon() + hedger.getHedgesLost()).isZero();
+    }
+
+    @Test
+    void slowCallsAreNotHedgedOnceTheBudgetIsSpent() throws Exception {
+        // the warm-up calls at 12.5% fund two hedges
+        RequestHedger hedger = hedger(0.95, 0.125);
+        warmUp(hedger);
+
+        for (int i = 0; i < 3; i++) {
+            CountDownLatch hold = new CountDownLatch(1);
+            holdNext.set(hold);
+            long exhausted = hedger.getBudgetExhausted();
+
+            // a hedged call returns on its own, an unhedged one waits for its primary to be released
+            CompletableFuture<String> call = CompletableFuture.supplyAsync(() -> hedger.call(prompt()), executor);
+            awaitUntil(() -> call.isDone() || hedger.getBudgetExhausted() > exhausted);
+            hold.countDown();
+            call.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(hedger.getHedgesWon() + hedger.getHedgesLost()).isEqualTo(2);
+        assertThat(hedger.getBudgetExhausted()).isEqualTo(1);
+    }
+
+    private RequestHedger hedger(double percentile, double budgetRatio) {
+        return new RequestHedger(pool, executor, percentile, Duration.ofMillis(50), budgetRatio,
+                                 () -> clockNanos.addAndGet(clockStep.get()));
+    }
+
+    private void warmUp(RequestHedger hedger) {
+        // none of these calls is hedged, and as the clock stands still they leave the delay at its minimum
+        for (int i = 0; i < RequestHedger.MIN_SAMPLES; i++) {
+            hedger.call(prompt());
+        }
+        assertThat(hedger.getDelayMillis()).isEqualTo(50.0);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time")
+                                         .isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private double awaitCancelled(StubOllamaServer slow) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Counter cancelled = meterRegistry.find(OllamaBackendPool.REQUESTS_METRIC)
+                                             .tag("backend", slow.backendName())
+                                             .tag("outcome", "cancelled")
+                                             .counter();
+            if (cancelled != null) {
+                return cancelled.count();
+            }
+            Thread.sleep(10);
+        }
+        return 0;
+    }
+
+    private static Prompt prompt() {
+        return new Prompt("which backend?");
+    }
+}
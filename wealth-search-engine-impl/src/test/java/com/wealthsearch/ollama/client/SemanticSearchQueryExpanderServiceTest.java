@@ -1,24 +1,45 @@
 package com.wealthsearch.ollama.client;
 
+import com.fasterxml.jackson.core.JsonParseException;
 import com.wealthsearch.api.ollama.client.OllamaClient;
+import com.wealthsearch.db.repository.QueryExpansionRepository;
+import com.wealthsearch.model.entity.QueryExpansion;
+import com.wealthsearch.model.exception.OllamaClientException;
+import com.wealthsearch.model.exception.OllamaOverloadedException;
 import com.wealthsearch.model.ollama.FtsQueryExpandResult;
+import com.wealthsearch.ollama.QueryExpansionStore;
 import com.wealthsearch.ollama.SemanticSearchQueryExpanderService;
 import com.wealthsearch.ollama.client.confiuration.OllamaChatRequestProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,6 +50,15 @@ class SemanticSearchQueryExpanderServiceTest {
     @Mock
     private OllamaClient ollamaClient;
 
+    @Mock
+    private QueryExpansionRepository expansionRepository;
+
+    private QueryExpansionStore expansionStore;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+
     private SemanticSearchQueryExpanderService expanderService;
 
     @BeforeEach
@@ -36,17 +66,38 @@ class SemanticSearchQueryExpanderServiceTest {
         OllamaChatRequestProperties properties = new OllamaChatRequestProperties();
         properties.setFormat("json");
 
-        expanderService = new SemanticSearchQueryExpanderService(ollamaClient, properties);
+        meterRegistry = new SimpleMeterRegistry();
+        expansionStore = new QueryExpansionStore(expansionRepository, meterRegistry, Duration.ofDays(7),
+                                                 Duration.ofHours(1), 100, 100, Duration.ofHours(1));
+        expanderService = new SemanticSearchQueryExpanderService(ollamaClient, properties, meterRegistry,
+                                                                 expansionStore);
 
         ReflectionTestUtils.setField(expanderService, "synonymPromptResource",
                                      new ByteArrayResource("Query: \"{QUERY}\"".getBytes(StandardCharsets.UTF_8)));
         ReflectionTestUtils.setField(expanderService, "chatModel", "test-model");
         ReflectionTestUtils.setField(expanderService, "cacheMaximumSize", 16);
         ReflectionTestUtils.setField(expanderService, "cacheExpireAfterMinutes", 30L);
+        ReflectionTestUtils.setField(expanderService, "cacheRefreshAfterMinutes", 5L);
+        ReflectionTestUtils.setField(expanderService, "cacheRefreshThreads", 1);
+        ReflectionTestUtils.setField(expanderService, "ticker", (Ticker) clock::get);
+        ReflectionTestUtils.setField(expanderService, "expansionBudget", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(expanderService, "maxConcurrentExpansions", 2);
+        ReflectionTestUtils.setField(expanderService, "negativeCacheMaximumSize", 16);
+        ReflectionTestUtils.setField(expanderService, "timeoutTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(expanderService, "parseFailureTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(expanderService, "circuitOpenTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(expanderService, "rejectedTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(expanderService, "errorTtl", Duration.ofMinutes(1));
 
         expanderService.loadResources();
     }
 
+    @AfterEach
+    void tearDown() {
+        expanderService.shutdown();
+        expansionStore.shutdown();
+    }
+
     @Test
     void expandQueryWithSynonymsCachesRemoteResponses() {
         FtsQueryExpandResult response = new FtsQueryExpandResult();
@@ -90,6 +141,27 @@ class SemanticSearchQueryExpanderServiceTest {
         assertThat(terms).containsExactly("wealth");
     }
 
+    @Test
+    void expandQueryWithSynonymsAsyncLeavesTheWaitToTheCallerAndReportsFailures() throws Exception {
+        FtsQueryExpandResult response = new FtsQueryExpandResult();
+        response.setSynonyms(List.of("asset"));
+        response.setRelated(List.of());
+        response.setNarrower(List.of());
+        CountDownLatch release = new CountDownLatch(1);
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        }).thenThrow(new RuntimeException("Ollama service unavailable"));
+
+        CompletableFuture<Set<String>> expansion = expanderService.expandQueryWithSynonymsAsync("Wealth");
+        assertThat(expansion).isNotDone();
+        release.countDown();
+
+        assertThat(expansion.get(5, TimeUnit.SECONDS)).containsExactlyInAnyOrder("asset", "wealth", "Wealth");
+        assertThat(expanderService.expandQueryWithSynonymsAsync("pension"))
+                .failsWithin(Duration.ofSeconds(5));
+    }
+
     @Test
     void expandQueryWithSynonymsHandlesEmptyResponse() {
         FtsQueryExpandResult response = new FtsQueryExpandResult();
@@ -227,4 +299,273 @@ class SemanticSearchQueryExpanderServiceTest {
         // Original query should be included
         assertThat(terms).contains("original");
     }
+
+    @Test
+    void expandQueryWithSynonymsReturnsOriginalQueryWhenBudgetIsExceededAndCachesLateExpansion() throws Exception {
+        ReflectionTestUtils.setField(expanderService, "expansionBudget", Duration.ofMillis(50));
+
+        FtsQueryExpandResult response = new FtsQueryExpandResult();
+        response.setSynonyms(List.of("wealth management"));
+        response.setRelated(List.of());
+        response.setNarrower(List.of());
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+
+        Set<String> lateCall = expanderService.expandQueryWithSynonyms("wealth");
+        Set<String> concurrentCall = expanderService.expandQueryWithSynonyms("wealth");
+        release.countDown();
+
+        assertThat(lateCall).containsExactly("wealth");
+        assertThat(concurrentCall).containsExactly("wealth");
+        // the budget is short, so poll until the background generation has landed in the cache
+        Set<String> cachedCall = Set.of("wealth");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cachedCall.size() == 1 && System.nanoTime() < deadline) {
+            cachedCall = expanderService.expandQueryWithSynonyms("wealth");
+        }
+        assertThat(cachedCall).containsExactlyInAnyOrder("wealth management", "wealth");
+        verify(ollamaClient, times(1)).generate(ArgumentMatchers.any(Prompt.class));
+    }
+
+    @Test
+    void expandQueryWithSynonymsRetriesOnceNegativeEntryExpires() {
+        expanderService.shutdown();
+        ReflectionTestUtils.setField(expanderService, "errorTtl", Duration.ZERO);
+        expanderService.loadResources();
+
+        FtsQueryExpandResult response = new FtsQueryExpandResult();
+        response.setSynonyms(List.of("wealth management"));
+        response.setRelated(List.of());
+        response.setNarrower(List.of());
+
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenThrow(new RuntimeException(
+                "Ollama service unavailable"))
+                                                                       .thenReturn(response);
+
+        assertThat(expanderService.expandQueryWithSynonyms("wealth")).containsExactly("wealth");
+        assertThat(expanderService.expandQueryWithSynonyms("wealth")).containsExactlyInAnyOrder("wealth management",
+                                                                                               "wealth");
+    }
+
+    @Test
+    void expandQueryWithSynonymsServesRecentFailureWithoutCallingOllama() {
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenThrow(new RuntimeException(
+                "Ollama service unavailable"));
+
+        Set<String> failedCall = expanderService.expandQueryWithSynonyms("wealth");
+        Set<String> negativeHit = expanderService.expandQueryWithSynonyms("wealth");
+
+        assertThat(failedCall).containsExactly("wealth");
+        assertThat(negativeHit).containsExactly("wealth");
+        verify(ollamaClient, times(1)).generate(ArgumentMatchers.any(Prompt.class));
+        assertThat(failures("error")).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("search.expansion.negative-cache.hits", "reason", "error")
+                                .count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void expandQueryWithSynonymsCountsTimeouts() {
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenThrow(new OllamaClientException(
+                "Failed to execute generate operation", new SocketTimeoutException("Read timed out")));
+
+        expanderService.expandQueryWithSynonyms("wealth");
+
+        assertThat(failures("timeout")).isEqualTo(1.0);
+    }
+
+    @Test
+    void expandQueryWithSynonymsCountsParseFailures() {
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenThrow(new OllamaClientException(
+                "Failed to generate response", new JsonParseException(null, "Unexpected character")));
+
+        expanderService.expandQueryWithSynonyms("wealth");
+
+        assertThat(failures("parse_failure")).isEqualTo(1.0);
+    }
+
+    @Test
+    void expandQueryWithSynonymsCountsOpenCircuit() {
+        CallNotPermittedException notPermitted =
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("ollama"));
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenThrow(new OllamaClientException(
+                "Failed to execute generate operation", notPermitted));
+
+        expanderService.expandQueryWithSynonyms("wealth");
+
+        assertThat(failures("circuit_open")).isEqualTo(1.0);
+    }
+
+    @Test
+    void expandQueryWithSynonymsCountsConcurrencyLimitRejections() {
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenThrow(new OllamaOverloadedException(
+                "Concurrency limit of generate operation reached"));
+
+        expanderService.expandQueryWithSynonyms("wealth");
+
+        assertThat(failures("rejected")).isEqualTo(1.0);
+    }
+
+    @Test
+    void expandQueryWithSynonymsSharesOneGenerationAcrossSpellingsOfTheSameQuery() {
+        FtsQueryExpandResult response = new FtsQueryExpandResult();
+        response.setSynonyms(List.of("tax filing"));
+        response.setRelated(List.of());
+        response.setNarrower(List.of());
+
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenReturn(response);
+
+        Set<String> titleCase = expanderService.expandQueryWithSynonyms("Tax Return");
+        Set<String> trailingSpace = expanderService.expandQueryWithSynonyms("tax return ");
+        Set<String> hyphenated = expanderService.expandQueryWithSynonyms("TAX-RETURN");
+
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(ollamaClient, times(1)).generate(prompt.capture());
+        assertThat(prompt.getValue()
+                         .getContents()).contains("\"tax return\"");
+        assertThat(titleCase).containsExactlyInAnyOrder("tax filing", "tax return", "Tax Return");
+        assertThat(trailingSpace).containsExactlyInAnyOrder("tax filing", "tax return", "tax return ");
+        assertThat(hyphenated).containsExactlyInAnyOrder("tax filing", "tax return", "TAX-RETURN");
+    }
+
+    @Test
+    void expandQueryWithSynonymsDoesNotServeTermsOfAnotherModel() {
+        FtsQueryExpandResult response = new FtsQueryExpandResult();
+        response.setSynonyms(List.of("wealth management"));
+        response.setRelated(List.of());
+        response.setNarrower(List.of());
+
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenReturn(response);
+
+        expanderService.expandQueryWithSynonyms("wealth");
+        ReflectionTestUtils.setField(expanderService, "chatModel", "other-model");
+        expanderService.expandQueryWithSynonyms("wealth");
+
+        verify(ollamaClient, times(2)).generate(ArgumentMatchers.any(Prompt.class));
+    }
+
+    @Test
+    void expandQueryWithSynonymsDoesNotServeTermsOfAnotherPrompt() {
+        FtsQueryExpandResult response = new FtsQueryExpandResult();
+        response.setSynonyms(List.of("wealth management"));
+        response.setRelated(List.of());
+        response.setNarrower(List.of());
+
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenReturn(response);
+
+        expanderService.expandQueryWithSynonyms("wealth");
+        ReflectionTestUtils.setField(expanderService, "synonymPromptResource",
+                                     new ByteArrayResource("Expand: \"{QUERY}\"".getBytes(StandardCharsets.UTF_8)));
+        ReflectionTestUtils.invokeMethod(expanderService, "loadPromptTemplate");
+        expanderService.expandQueryWithSynonyms("wealth");
+
+        verify(ollamaClient, times(2)).generate(ArgumentMatchers.any(Prompt.class));
+    }
+
+    @Test
+    void expandQueryWithSynonymsServesStaleTermsWhileRefreshing() {
+        FtsQueryExpandResult response = new FtsQueryExpandResult();
+        response.setSynonyms(List.of("wealth management"));
+        response.setRelated(List.of());
+        response.setNarrower(List.of());
+
+        FtsQueryExpandResult refreshed = new FtsQueryExpandResult();
+        refreshed.setSynonyms(List.of("asset management"));
+        refreshed.setRelated(List.of());
+        refreshed.setNarrower(List.of());
+
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenReturn(response)
+                                                                       .thenReturn(refreshed);
+
+        expanderService.expandQueryWithSynonyms("wealth");
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(6));
+
+        Set<String> stale = expanderService.expandQueryWithSynonyms("wealth");
+        Set<String> current = awaitExpansion("wealth", "asset management");
+
+        assertThat(stale).containsExactlyInAnyOrder("wealth management", "wealth");
+        assertThat(current).containsExactlyInAnyOrder("asset management", "wealth");
+        verify(ollamaClient, times(2)).generate(ArgumentMatchers.any(Prompt.class));
+    }
+
+    @Test
+    void expandQueryWithSynonymsKeepsStaleTermsWhenRefreshFails() throws InterruptedException {
+        FtsQueryExpandResult response = new FtsQueryExpandResult();
+        response.setSynonyms(List.of("wealth management"));
+        response.setRelated(List.of());
+        response.setNarrower(List.of());
+
+        CountDownLatch refreshAttempted = new CountDownLatch(1);
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenReturn(response)
+                                                                       .thenAnswer(invocation -> {
+                                                                           refreshAttempted.countDown();
+                                                                           throw new RuntimeException(
+                                                                                   "Ollama service unavailable");
+                                                                       });
+
+        expanderService.expandQueryWithSynonyms("wealth");
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(6));
+        expanderService.expandQueryWithSynonyms("wealth");
+
+        assertThat(refreshAttempted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(expanderService.expandQueryWithSynonyms("wealth")).containsExactlyInAnyOrder("wealth management",
+                                                                                               "wealth");
+        assertThat(failures("error")).isZero();
+    }
+
+    @Test
+    void expandQueryWithSynonymsServesStoredExpansionWithoutCallingOllama() {
+        when(expansionRepository.findUnexpired(ArgumentMatchers.eq("tax return"), ArgumentMatchers.eq("test-model"),
+                                               ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(
+                Optional.of(QueryExpansion.builder()
+                                          .terms("[\"tax return\",\"tax filing\"]")
+                                          .build()));
+
+        Set<String> terms = expanderService.expandQueryWithSynonyms("Tax Return");
+
+        assertThat(terms).containsExactlyInAnyOrder("tax return", "tax filing", "Tax Return");
+        verify(ollamaClient, never()).generate(ArgumentMatchers.any(Prompt.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void expandQueryWithSynonymsWritesGeneratedExpansionBehind() {
+        FtsQueryExpandResult response = new FtsQueryExpandResult();
+        response.setSynonyms(List.of("wealth management"));
+        response.setRelated(List.of());
+        response.setNarrower(List.of());
+
+        when(ollamaClient.generate(ArgumentMatchers.any(Prompt.class))).thenReturn(response);
+
+        expanderService.expandQueryWithSynonyms("wealth");
+        verify(expansionRepository, never()).upsertAll(ArgumentMatchers.anyCollection());
+        expansionStore.flush();
+
+        ArgumentCaptor<Collection<QueryExpansion>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(expansionRepository).upsertAll(batch.capture());
+        assertThat(batch.getValue()).singleElement()
+                                    .satisfies(expansion -> {
+                                        assertThat(expansion.getNormalizedQuery()).isEqualTo("wealth");
+                                        assertThat(expansion.getModel()).isEqualTo("test-model");
+                                        assertThat(expansion.getTerms()).contains("wealth management");
+                                    });
+    }
+
+    private Set<String> awaitExpansion(String query, String expectedTerm) {
+        Set<String> terms = expanderService.expandQueryWithSynonyms(query);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!terms.contains(expectedTerm) && System.nanoTime() < deadline) {
+            Thread.yield();
+            terms = expanderService.expandQueryWithSynonyms(query);
+        }
+        return terms;
+    }
+
+    private double failures(String reason) {
+        return meterRegistry.counter("search.expansion.failures", "reason", reason)
+                            .count();
+    }
 }
@@ -0,0 +1,88 @@
+package com.wealthsearch.ollama.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.wealthsearch.model.exception.OllamaClientException;
+import com.wealthsearch.ollama.client.confiuration.OllamaBackendProperties;
+import com.wealthsearch.ollama.client.confiuration.OllamaConcurrencyLimitProperties;
+import com.wealthsearch.ollama.client.confiuration.OllamaDispatchProperties;
+import com.wealthsearch.ollama.client.confiuration.OllamaHedgingProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpringAiOllamaClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SpringAiOllamaClient client;
+
+    private StubOllamaServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void concurrencyLimitsGrowWithTheNumberOfBackends() {
+        OllamaBackendProperties backendProperties = new OllamaBackendProperties();
+        backendProperties.setBaseUrls(List.of("http://ollama-a:11434", "http://ollama-b:11434",
+                                              "http://ollama-c:11434"));
+        OllamaBackendPool pool = new OllamaBackendPool(backendProperties, "http://localhost:11434",
+                                                       StubOllamaServer::chatClient,
+                                                       CircuitBreakerRegistry.ofDefaults(), meterRegistry,
+                                                       System::nanoTime);
+
+        client = new SpringAiOllamaClient(RetryRegistry.ofDefaults(), pool, new OllamaConcurrencyLimitProperties(),
+                                          new OllamaDispatchProperties(), new OllamaHedgingProperties(),
+                                          meterRegistry);
+
+        // the defaults are per backend: generate starts at 8 and summaries at 2
+        assertThat(limit("generate")).isEqualTo(24.0);
+        assertThat(limit("generateSummary")).isEqualTo(6.0);
+    }
+
+    @Test
+    void unparsableAnswerDoesNotShrinkTheConcurrencyLimit() throws IOException {
+        // the stub answers with its name, which is not the JSON the expansion expects
+        server = new StubOllamaServer("not-json", new AtomicReference<>());
+        OllamaBackendProperties backendProperties = new OllamaBackendProperties();
+        backendProperties.setBaseUrls(List.of(server.baseUrl()));
+        OllamaBackendPool pool = new OllamaBackendPool(backendProperties, "http://localhost:11434",
+                                                       StubOllamaServer::chatClient,
+                                                       CircuitBreakerRegistry.ofDefaults(), meterRegistry,
+                                                       System::nanoTime);
+        client = new SpringAiOllamaClient(RetryRegistry.ofDefaults(), pool, new OllamaConcurrencyLimitProperties(),
+                                          new OllamaDispatchProperties(), new OllamaHedgingProperties(),
+                                          meterRegistry);
+
+        assertThatThrownBy(() -> client.generate(new Prompt("expand"))).isInstanceOf(OllamaClientException.class)
+                                                                      .hasRootCauseInstanceOf(
+                                                                              JsonProcessingException.class);
+
+        assertThat(server.requests.get()).isEqualTo(1);
+        assertThat(limit("generate")).isEqualTo(8.0);
+    }
+
+    private double limit(String operation) {
+        return meterRegistry.get(SpringAiOllamaClient.LIMIT_METRIC)
+                            .tag("operation", operation)
+                            .gauge()
+                            .value();
+    }
+}
@@ -0,0 +1,102 @@
+package com.wealthsearch.ollama.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.http.client.ReactorNettyClientRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Answers {@code /api/chat} with its own name as the content, or with the configured error status. The first request
+ * to find a latch in {@code holdNext} (shared between servers) waits for it before answering.
+ */
+final class StubOllamaServer {
+
+    static final long HOLD_MILLIS = 2000;
+
+    final AtomicInteger status = new AtomicInteger(200);
+
+    final AtomicInteger requests = new AtomicInteger();
+
+    final CountDownLatch held = new CountDownLatch(1);
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    StubOllamaServer(String name, AtomicReference<CountDownLatch> holdNext) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/chat", exchange -> {
+            requests.incrementAndGet();
+            CountDownLatch latch = holdNext.getAndSet(null);
+            if (latch != null) {
+                held.countDown();
+                try {
+                    latch.await(HOLD_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread()
+                          .interrupt();
+                }
+            }
+
+            byte[] body = ("{\"model\":\"test\",\"created_at\":\"2024-01-01T00:00:00Z\","
+                    + "\"message\":{\"role\":\"assistant\",\"content\":\"" + name + "\"},\"done\":true}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders()
+                    .add("Content-Type", "application/json");
+            try {
+                exchange.sendResponseHeaders(status.get(), body.length);
+                exchange.getResponseBody()
+                        .write(body);
+            } catch (IOException e) {
+                // the client gave up on the call
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    /**
+     * A chat client over the same pooled Reactor Netty transport as the application uses.
+     */
+    static ChatClient.Builder chatClient(String baseUrl) {
+        OllamaApi ollamaApi = new OllamaApi(baseUrl, RestClient.builder()
+                                                               .requestFactory(new ReactorNettyClientRequestFactory()),
+                                            WebClient.builder());
+        return ChatClient.builder(OllamaChatModel.builder()
+                                                 .ollamaApi(ollamaApi)
+                                                 .defaultOptions(OllamaOptions.builder()
+                                                                              .model("test")
+                                                                              .build())
+                                                 .build());
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress()
+                                           .getPort();
+    }
+
+    String backendName() {
+        return "localhost:" + server.getAddress()
+                                    .getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
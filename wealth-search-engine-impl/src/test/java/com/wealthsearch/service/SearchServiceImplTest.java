@@ -6,10 +6,20 @@ import com.wealthsearch.db.repository.DocumentRepository;
 import com.wealthsearch.model.entity.Client;
 import com.wealthsearch.model.entity.Document;
 import com.wealthsearch.model.entity.search.ClientSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchCursor;
 import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
+import com.wealthsearch.model.entity.search.DocumentSearchSort;
 import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
 import com.wealthsearch.model.exception.BadRequestException;
+import com.wealthsearch.service.event.ClientCreatedEvent;
+import com.wealthsearch.service.event.DocumentCreatedEvent;
+import com.wealthsearch.service.search.ClientSearchResultCache;
+import com.wealthsearch.service.search.DatabaseClientSearchEngine;
+import com.wealthsearch.service.search.DocumentSearchResultCache;
+import com.wealthsearch.service.search.HedgedDocumentSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,10 +29,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,6 +47,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class SearchServiceImplTest {
 
+    private static final DocumentSearchOptions OPTIONS = DocumentSearchOptions.defaults();
+
     @Mock
     private ClientRepository clientRepository;
 
@@ -42,12 +58,26 @@ class SearchServiceImplTest {
     @Mock
     private SemanticSearchQueryExpander searchQueryExpander;
 
+    private ClientSearchResultCache clientSearchResultCache;
+
+    private DocumentSearchResultCache documentSearchResultCache;
+
+    private HedgedDocumentSearch hedgedDocumentSearch;
+
     private SearchServiceImpl searchService;
 
     @BeforeEach
     void setUp() {
-        searchService = new SearchServiceImpl(clientRepository, documentRepository, searchQueryExpander);
+        clientSearchResultCache = new ClientSearchResultCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        documentSearchResultCache = new DocumentSearchResultCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1),
+                                                                  Duration.ofMinutes(1));
+        hedgedDocumentSearch = new HedgedDocumentSearch(searchQueryExpander, new SimpleMeterRegistry(),
+                                                        Duration.ofSeconds(1), 2);
+        searchService = new SearchServiceImpl(new DatabaseClientSearchEngine(clientRepository),
+                                              clientSearchResultCache, documentRepository, documentSearchResultCache,
+                                              searchQueryExpander, hedgedDocumentSearch);
         ReflectionTestUtils.setField(searchService, "maxQueryLength", 128L);
+        ReflectionTestUtils.setField(searchService, "maxClientIds", 2);
     }
 
     @Test
@@ -130,6 +160,41 @@ class SearchServiceImplTest {
                 .hasMessageContaining("Query does not contain searchable characters");
     }
 
+    @Test
+    void searchClientsServesRepeatedQueryFromCache() {
+        PaginationParams pagination = PaginationParams.of(20, 0);
+        when(clientRepository.findClientsByCompanyDomain(List.of("neviswealth"), pagination))
+                .thenReturn(new SearchResult<>());
+
+        searchService.searchClientsPerCompanyName("NevisWealth", pagination);
+        searchService.searchClientsPerCompanyName("neviswealth", pagination);
+
+        verify(clientRepository, times(1)).findClientsByCompanyDomain(List.of("neviswealth"), pagination);
+    }
+
+    @Test
+    void searchClientsReloadsAfterClientIsCreated() {
+        PaginationParams pagination = PaginationParams.of(20, 0);
+        when(clientRepository.findClientsByCompanyDomain(List.of("neviswealth"), pagination))
+                .thenReturn(new SearchResult<>());
+
+        searchService.searchClientsPerCompanyName("neviswealth", pagination);
+        clientSearchResultCache.onClientCreated(new ClientCreatedEvent(Client.builder()
+                                                                             .build()));
+        searchService.searchClientsPerCompanyName("neviswealth", pagination);
+
+        verify(clientRepository, times(2)).findClientsByCompanyDomain(List.of("neviswealth"), pagination);
+    }
+
+    @Test
+    void searchClientsRejectsCursorCombinedWithOffset() {
+        PaginationParams pagination = PaginationParams.of(20, 10, "cursor");
+
+        assertThatThrownBy(() -> searchService.searchClientsPerCompanyName("neviswealth", pagination))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Cursor cannot be combined with offset");
+    }
+
     @Test
     void searchClientsHandlesUnicodeCharacters() {
         String query = "Zürich";
@@ -159,13 +224,14 @@ class SearchServiceImplTest {
                 .build();
 
         when(searchQueryExpander.expandQueryWithSynonyms(query)).thenReturn(expandedTerms);
-        when(documentRepository.searchByContent(expandedTerms, pagination)).thenReturn(expected);
+        when(documentRepository.searchByContent(expandedTerms, OPTIONS, pagination)).thenReturn(expected);
 
-        SearchResult<DocumentSearchHit> result = searchService.searchDocumentsBySimilarTerms(query, pagination);
+        SearchResult<DocumentSearchHit> result =
+                searchService.searchDocumentsBySimilarTerms(query, OPTIONS, pagination);
 
         assertThat(result).isEqualTo(expected);
         verify(searchQueryExpander).expandQueryWithSynonyms(query);
-        verify(documentRepository).searchByContent(expandedTerms, pagination);
+        verify(documentRepository).searchByContent(expandedTerms, OPTIONS, pagination);
     }
 
     @Test
@@ -174,10 +240,10 @@ class SearchServiceImplTest {
         PaginationParams pagination = PaginationParams.of(20, 0);
 
         when(searchQueryExpander.expandQueryWithSynonyms(query)).thenReturn(Set.of(query));
-        when(documentRepository.searchByContent(any(), eq(pagination)))
+        when(documentRepository.searchByContent(any(), eq(OPTIONS), eq(pagination)))
                 .thenReturn(new SearchResult<>());
 
-        searchService.searchDocumentsBySimilarTerms(query, pagination);
+        searchService.searchDocumentsBySimilarTerms(query, OPTIONS, pagination);
 
         // Verify the query was normalized before being sent to expander
         verify(searchQueryExpander).expandQueryWithSynonyms(query);
@@ -185,14 +251,14 @@ class SearchServiceImplTest {
 
     @Test
     void searchDocumentsRejectsBlankQuery() {
-        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms("", PaginationParams.of(20, 0)))
+        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms("", OPTIONS, PaginationParams.of(20, 0)))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Query should not be empty");
     }
 
     @Test
     void searchDocumentsRejectsNullQuery() {
-        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms(null, PaginationParams.of(20, 0)))
+        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms(null, OPTIONS, PaginationParams.of(20, 0)))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Query should not be empty");
     }
@@ -201,7 +267,8 @@ class SearchServiceImplTest {
     void searchDocumentsRejectsTooLongQuery() {
         String longQuery = "a".repeat(129);
 
-        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms(longQuery, PaginationParams.of(20, 0)))
+        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms(longQuery, OPTIONS,
+                                                                             PaginationParams.of(20, 0)))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Query is too long. Max allowed length: '128'");
     }
@@ -210,11 +277,128 @@ class SearchServiceImplTest {
     void searchDocumentsRejectsQueryWithOnlySpecialCharacters() {
         String query = "!@#$%";
 
-        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms(query, PaginationParams.of(20, 0)))
+        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms(query, OPTIONS,
+                                                                             PaginationParams.of(20, 0)))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Query does not contain searchable characters");
     }
 
+    @Test
+    void searchDocumentsRejectsTooManyClientIds() {
+        DocumentSearchOptions options = DocumentSearchOptions.builder()
+                                                             .clientIds(Set.of(UUID.randomUUID(), UUID.randomUUID(),
+                                                                               UUID.randomUUID()))
+                                                             .build();
+
+        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms("wealth", options,
+                                                                             PaginationParams.of(20, 0)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Too many client ids. Max allowed: '2'");
+    }
+
+    @Test
+    void searchDocumentsRejectsEmptyCreatedAtRange() {
+        OffsetDateTime instant = OffsetDateTime.parse("2025-10-01T00:00:00Z");
+        DocumentSearchOptions options = DocumentSearchOptions.builder()
+                                                             .createdFrom(instant)
+                                                             .createdTo(instant)
+                                                             .build();
+
+        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms("wealth", options,
+                                                                             PaginationParams.of(20, 0)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("'from' must be before 'to'");
+    }
+
+    @Test
+    void searchDocumentsCachesClientScopedPagesSeparately() {
+        PaginationParams pagination = PaginationParams.of(20, 0);
+        DocumentSearchOptions scoped = DocumentSearchOptions.builder()
+                                                            .clientIds(Set.of(UUID.randomUUID()))
+                                                            .build();
+        when(searchQueryExpander.expandQueryWithSynonyms("wealth")).thenReturn(Set.of("wealth"));
+        when(documentRepository.searchByContent(any(), any(DocumentSearchOptions.class), eq(pagination)))
+                .thenReturn(new SearchResult<>());
+
+        searchService.searchDocumentsBySimilarTerms("wealth", OPTIONS, pagination);
+        searchService.searchDocumentsBySimilarTerms("wealth", scoped, pagination);
+
+        verify(documentRepository).searchByContent(Set.of("wealth"), OPTIONS, pagination);
+        verify(documentRepository).searchByContent(Set.of("wealth"), scoped, pagination);
+    }
+
+    @Test
+    void searchDocumentsWithHedgingSearchesCachedExpansionWithoutLiteralSearch() {
+        ReflectionTestUtils.setField(searchService, "hedgingEnabled", true);
+        PaginationParams pagination = PaginationParams.of(20, 0);
+        SearchResult<DocumentSearchHit> expanded = SearchResult.<DocumentSearchHit>builder()
+                                                               .totalCount(7)
+                                                               .build();
+        when(searchQueryExpander.expandQueryWithSynonymsAsync("wealth"))
+                .thenReturn(CompletableFuture.completedFuture(Set.of("wealth", "asset")));
+        when(documentRepository.searchByContent(Set.of("wealth", "asset"), OPTIONS, pagination)).thenReturn(expanded);
+
+        SearchResult<DocumentSearchHit> result = searchService.searchDocumentsBySimilarTerms("wealth", OPTIONS,
+                                                                                             pagination);
+
+        assertThat(result).isSameAs(expanded);
+        verify(documentRepository, never()).searchByContent(Set.of("wealth"), OPTIONS, pagination);
+    }
+
+    @Test
+    void searchDocumentsContinuesCursorWithTheTermSetItWasIssuedFor() {
+        Set<String> issuedTerms = Set.of("wealth", "pension");
+        String cursor = new DocumentSearchCursor(DocumentSearchSort.RELEVANCE, 0.5, OffsetDateTime.now(),
+                                                 UUID.randomUUID(), 30, true,
+                                                 DocumentSearchCursor.fingerprint(issuedTerms, OPTIONS),
+                                                 issuedTerms).encode();
+        PaginationParams pagination = PaginationParams.of(20, 0, cursor);
+        when(documentRepository.searchByContent(issuedTerms, OPTIONS, pagination)).thenReturn(new SearchResult<>());
+
+        searchService.searchDocumentsBySimilarTerms("wealth", OPTIONS, pagination);
+
+        // the cursor carries the expansion of its first page, so the query is not expanded again
+        verifyNoInteractions(searchQueryExpander);
+        verify(documentRepository).searchByContent(issuedTerms, OPTIONS, pagination);
+    }
+
+    @Test
+    void searchDocumentsServesSameTermSetFromCache() {
+        PaginationParams pagination = PaginationParams.of(20, 0);
+        when(searchQueryExpander.expandQueryWithSynonyms("wealth")).thenReturn(Set.of("wealth", "asset"));
+        when(searchQueryExpander.expandQueryWithSynonyms("asset")).thenReturn(Set.of("asset", "wealth"));
+        when(documentRepository.searchByContent(any(), eq(OPTIONS), eq(pagination))).thenReturn(new SearchResult<>());
+
+        searchService.searchDocumentsBySimilarTerms("wealth", OPTIONS, pagination);
+        searchService.searchDocumentsBySimilarTerms("asset", OPTIONS, pagination);
+
+        verify(documentRepository, times(1)).searchByContent(any(), eq(OPTIONS), eq(pagination));
+    }
+
+    @Test
+    void searchDocumentsReloadsAfterDocumentIsCreated() {
+        PaginationParams pagination = PaginationParams.of(20, 0);
+        when(searchQueryExpander.expandQueryWithSynonyms("wealth")).thenReturn(Set.of("wealth"));
+        when(documentRepository.searchByContent(Set.of("wealth"), OPTIONS, pagination))
+                .thenReturn(new SearchResult<>());
+
+        searchService.searchDocumentsBySimilarTerms("wealth", OPTIONS, pagination);
+        documentSearchResultCache.onDocumentCreated(new DocumentCreatedEvent(Document.builder()
+                                                                                     .build()));
+        searchService.searchDocumentsBySimilarTerms("wealth", OPTIONS, pagination);
+
+        verify(documentRepository, times(2)).searchByContent(Set.of("wealth"), OPTIONS, pagination);
+    }
+
+    @Test
+    void searchDocumentsRejectsCursorCombinedWithOffset() {
+        PaginationParams pagination = PaginationParams.of(20, 10, "cursor");
+
+        assertThatThrownBy(() -> searchService.searchDocumentsBySimilarTerms("wealth", OPTIONS, pagination))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Cursor cannot be combined with offset");
+    }
+
     @Test
     void searchDocumentsHandlesOllamaExpansionFailure() {
         String query = "wealth";
@@ -222,13 +406,14 @@ class SearchServiceImplTest {
         Set<String> fallbackTerms = Set.of(query);
 
         when(searchQueryExpander.expandQueryWithSynonyms(query)).thenReturn(fallbackTerms);
-        when(documentRepository.searchByContent(fallbackTerms, pagination))
+        when(documentRepository.searchByContent(fallbackTerms, OPTIONS, pagination))
                 .thenReturn(new SearchResult<>());
 
-        SearchResult<DocumentSearchHit> result = searchService.searchDocumentsBySimilarTerms(query, pagination);
+        SearchResult<DocumentSearchHit> result =
+                searchService.searchDocumentsBySimilarTerms(query, OPTIONS, pagination);
 
         assertThat(result).isNotNull();
-        verify(documentRepository).searchByContent(fallbackTerms, pagination);
+        verify(documentRepository).searchByContent(fallbackTerms, OPTIONS, pagination);
     }
 
     @Test
@@ -238,13 +423,14 @@ class SearchServiceImplTest {
         Set<String> emptyExpansion = Set.of();
 
         when(searchQueryExpander.expandQueryWithSynonyms(query)).thenReturn(emptyExpansion);
-        when(documentRepository.searchByContent(emptyExpansion, pagination))
+        when(documentRepository.searchByContent(emptyExpansion, OPTIONS, pagination))
                 .thenReturn(new SearchResult<>());
 
-        SearchResult<DocumentSearchHit> result = searchService.searchDocumentsBySimilarTerms(query, pagination);
+        SearchResult<DocumentSearchHit> result =
+                searchService.searchDocumentsBySimilarTerms(query, OPTIONS, pagination);
 
         assertThat(result).isNotNull();
-        verify(documentRepository).searchByContent(emptyExpansion, pagination);
+        verify(documentRepository).searchByContent(emptyExpansion, OPTIONS, pagination);
     }
 
     @ParameterizedTest
@@ -276,13 +462,13 @@ class SearchServiceImplTest {
     void searchDocumentsAcceptsValidQueries(String query) {
         PaginationParams pagination = PaginationParams.of(20, 0);
         when(searchQueryExpander.expandQueryWithSynonyms(query)).thenReturn(Set.of(query));
-        when(documentRepository.searchByContent(any(), eq(pagination)))
+        when(documentRepository.searchByContent(any(), eq(OPTIONS), eq(pagination)))
                 .thenReturn(new SearchResult<>());
 
-        searchService.searchDocumentsBySimilarTerms(query, pagination);
+        searchService.searchDocumentsBySimilarTerms(query, OPTIONS, pagination);
 
         verify(searchQueryExpander).expandQueryWithSynonyms(query);
-        verify(documentRepository).searchByContent(any(), eq(pagination));
+        verify(documentRepository).searchByContent(any(), eq(OPTIONS), eq(pagination));
     }
 
     @Test
@@ -0,0 +1,98 @@
+package com.wealthsearch.service.search;
+
+import com.wealthsearch.model.entity.Client;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientDomainTrigramIndexTest {
+
+    private final ClientDomainTrigramIndex index = new ClientDomainTrigramIndex();
+
+    @Test
+    void searchMatchesExactAndFuzzyDomains() {
+        Client nevis = index(client("neviswealth"));
+        Client other = index(client("wealthbridge"));
+
+        List<ClientDomainTrigramIndex.Match> matches = index.search(List.of("neviswelth"));
+
+        assertThat(matches).extracting(ClientDomainTrigramIndex.Match::client)
+                           .extracting(Client::getId)
+                           .containsExactly(nevis.getId());
+        assertThat(matches).extracting(ClientDomainTrigramIndex.Match::client)
+                           .extracting(Client::getId)
+                           .doesNotContain(other.getId());
+    }
+
+    @Test
+    void searchRanksByScoreThenByPostgresUuidOrder() {
+        Client morganJp = index(client("morganjp", UUID.fromString("f0000000-0000-0000-0000-000000000000")));
+        Client morganJpSecond = index(client("morganjp", UUID.fromString("10000000-0000-0000-0000-000000000000")));
+        Client jpMorgan = index(client("jpmorgan"));
+
+        List<ClientDomainTrigramIndex.Match> matches = index.search(List.of("j", "p", "morgan"));
+
+        assertThat(matches).extracting(ClientDomainTrigramIndex.Match::client)
+                           .extracting(Client::getId)
+                           .containsExactly(morganJpSecond.getId(), morganJp.getId(), jpMorgan.getId());
+        assertThat(matches).extracting(ClientDomainTrigramIndex.Match::score)
+                           .containsExactly(0.85714287f, 0.85714287f, 0.71428573f);
+    }
+
+    @Test
+    void searchRequiresEveryWordToMatch() {
+        index(client("neviswealth"));
+        index(client("wealthbridge"));
+
+        assertThat(index.search(List.of("nevis", "bridge"))).isEmpty();
+        assertThat(index.search(List.of("nevis", "wealth"))).hasSize(1);
+    }
+
+    @Test
+    void shortWordsMatchBySubstring() {
+        Client nevis = index(client("neviswealth"));
+        index(client("morganjp"));
+
+        assertThat(index.search(List.of("sw"))).extracting(ClientDomainTrigramIndex.Match::client)
+                                               .extracting(Client::getId)
+                                               .containsExactly(nevis.getId());
+    }
+
+    @Test
+    void addIgnoresAlreadyIndexedClients() {
+        Client client = index(client("neviswealth"));
+        index.add(client);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search(List.of("neviswealth"))).hasSize(1);
+    }
+
+    @Test
+    void searchRejectsEmptyWords() {
+        assertThatThrownBy(() -> index.search(List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Client index(Client client) {
+        index.add(client);
+        return client;
+    }
+
+    private Client client(String domainName) {
+        return client(domainName, UUID.randomUUID());
+    }
+
+    private Client client(String domainName, UUID id) {
+        return Client.builder()
+                     .id(id)
+                     .firstName("John")
+                     .lastName("Doe")
+                     .email("john.doe@" + domainName + ".com")
+                     .domainName(domainName)
+                     .countryOfResidence("US")
+                     .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.wealthsearch.service.search;
+
+import com.wealthsearch.model.entity.Document;
+import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import com.wealthsearch.model.entity.search.SearchResult;
+import com.wealthsearch.model.exception.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DocumentSearchResultCacheTest {
+
+    private static final Set<String> TERMS = Set.of("wealth");
+
+    private static final PaginationParams FIRST_PAGE = PaginationParams.of(20, 0);
+
+    private final DocumentSearchResultCache cache = new DocumentSearchResultCache(new SimpleMeterRegistry(),
+                                                                                  DataSize.ofMegabytes(1),
+                                                                                  Duration.ofMinutes(1));
+
+    @Test
+    void getLoadsMissingPageOnTheCallingThreadOnce() {
+        List<Thread> loadingThreads = new CopyOnWriteArrayList<>();
+        Supplier<SearchResult<DocumentSearchHit>> loader = () -> {
+            loadingThreads.add(Thread.currentThread());
+            return page(1, 10);
+        };
+
+        SearchResult<DocumentSearchHit> first = cache.get(TERMS, DocumentSearchOptions.defaults(), FIRST_PAGE, loader);
+        SearchResult<DocumentSearchHit> second = cache.get(TERMS, DocumentSearchOptions.defaults(), FIRST_PAGE, loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loadingThreads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    void getRethrowsFailedLoadWithoutCachingIt() {
+        assertThatThrownBy(() -> cache.get(TERMS, DocumentSearchOptions.defaults(), FIRST_PAGE, () -> {
+            throw new BadRequestException("Invalid cursor");
+        })).isInstanceOf(BadRequestException.class)
+           .hasMessage("Invalid cursor");
+
+        SearchResult<DocumentSearchHit> page = page(1, 10);
+        assertThat(cache.get(TERMS, DocumentSearchOptions.defaults(), FIRST_PAGE, () -> page)).isSameAs(page);
+    }
+
+    @Test
+    void concurrentCallersOfOnePageShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SearchResult<DocumentSearchHit> page = page(1, 10);
+        Supplier<SearchResult<DocumentSearchHit>> loader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+            return page;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<SearchResult<DocumentSearchHit>> first = executor.submit(
+                    () -> cache.get(TERMS, DocumentSearchOptions.defaults(), FIRST_PAGE, loader));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<SearchResult<DocumentSearchHit>> second = executor.submit(
+                    () -> cache.get(TERMS, DocumentSearchOptions.defaults(), FIRST_PAGE, loader));
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(page);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(page);
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void weighCountsDocumentTextOfEveryHit() {
+        int smallWeight = DocumentSearchResultCache.weigh(page(1, 10));
+        int largeWeight = DocumentSearchResultCache.weigh(page(10, 1_000));
+
+        assertThat(largeWeight).isGreaterThan(smallWeight);
+        assertThat(largeWeight).isGreaterThan(10 * 2 * 1_000);
+    }
+
+    @Test
+    void weighOfEmptyPageIsPositive() {
+        assertThat(DocumentSearchResultCache.weigh(new SearchResult<>())).isPositive();
+    }
+
+    private SearchResult<DocumentSearchHit> page(int hits, int contentLength) {
+        List<DocumentSearchHit> results = IntStream.range(0, hits)
+                                                   .mapToObj(i -> hit(contentLength))
+                                                   .toList();
+
+        return SearchResult.<DocumentSearchHit>builder()
+                           .results(results)
+                           .totalCount(hits)
+                           .build();
+    }
+
+    private DocumentSearchHit hit(int contentLength) {
+        Document document = Document.builder()
+                                    .id(UUID.randomUUID())
+                                    .title("Title")
+                                    .content("x".repeat(contentLength))
+                                    .build();
+
+        return new DocumentSearchHit(document, 1.0);
+    }
+}
@@ -0,0 +1,202 @@
+package com.wealthsearch.service.search;
+
+import com.wealthsearch.api.ollama.SemanticSearchQueryExpander;
+import com.wealthsearch.model.entity.search.DocumentSearchCursor;
+import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
+import com.wealthsearch.model.entity.search.DocumentSearchSort;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import com.wealthsearch.model.entity.search.SearchResult;
+import com.wealthsearch.model.exception.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HedgedDocumentSearchTest {
+
+    private static final DocumentSearchOptions OPTIONS = DocumentSearchOptions.defaults();
+
+    private static final PaginationParams FIRST_PAGE = PaginationParams.of(20, 0);
+
+    @Mock
+    private SemanticSearchQueryExpander searchQueryExpander;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<Set<String>> searchedTermSets = new CopyOnWriteArrayList<>();
+
+    private HedgedDocumentSearch hedgedDocumentSearch;
+
+    @AfterEach
+    void tearDown() {
+        if (hedgedDocumentSearch != null) {
+            hedgedDocumentSearch.shutdown();
+        }
+    }
+
+    @Test
+    void searchUsesExpandedTermsThatArriveWithinBudget() {
+        hedgedDocumentSearch = newHedgedSearch();
+        CompletableFuture<Set<String>> expansion = new CompletableFuture<>();
+        when(searchQueryExpander.expandQueryWithSynonymsAsync("wealth")).thenReturn(expansion);
+
+        SearchResult<DocumentSearchHit> result = hedgedDocumentSearch.search("wealth", FIRST_PAGE, terms -> {
+            // the expansion lands while the literal search runs
+            expansion.complete(Set.of("wealth", "asset"));
+            return recordingSearch().apply(terms);
+        });
+
+        assertThat(result.getTotalCount()).isEqualTo(2);
+        assertThat(searchedTermSets).containsExactly(Set.of("wealth"), Set.of("wealth", "asset"));
+        assertThat(outcomeCount("in_time")).isEqualTo(1);
+    }
+
+    @Test
+    void searchUsesCachedExpansionWithoutLiteralSearch() {
+        hedgedDocumentSearch = newHedgedSearch();
+        when(searchQueryExpander.expandQueryWithSynonymsAsync("wealth"))
+                .thenReturn(CompletableFuture.completedFuture(Set.of("wealth", "asset")));
+
+        SearchResult<DocumentSearchHit> result = hedgedDocumentSearch.search("wealth", FIRST_PAGE,
+                                                                             recordingSearch());
+
+        assertThat(result.getTotalCount()).isEqualTo(2);
+        assertThat(searchedTermSets).containsExactly(Set.of("wealth", "asset"));
+        assertThat(outcomeCount("cached")).isEqualTo(1);
+    }
+
+    @Test
+    void searchReusesLiteralResultWhenExpansionFallsBackToQuery() {
+        hedgedDocumentSearch = newHedgedSearch();
+        when(searchQueryExpander.expandQueryWithSynonymsAsync("wealth"))
+                .thenReturn(CompletableFuture.completedFuture(Set.of("wealth")));
+
+        hedgedDocumentSearch.search("wealth", FIRST_PAGE, recordingSearch());
+
+        assertThat(searchedTermSets).containsExactly(Set.of("wealth"));
+    }
+
+    @Test
+    void searchReturnsLiteralResultAndWarmsExpandedSearchWhenExpansionIsLate() throws Exception {
+        hedgedDocumentSearch = new HedgedDocumentSearch(searchQueryExpander, meterRegistry, Duration.ofMillis(50), 2);
+        CountDownLatch expandedSearched = new CountDownLatch(1);
+        CompletableFuture<Set<String>> expansion = new CompletableFuture<>();
+        when(searchQueryExpander.expandQueryWithSynonymsAsync("wealth")).thenReturn(expansion);
+
+        SearchResult<DocumentSearchHit> result = hedgedDocumentSearch.search("wealth", FIRST_PAGE, terms -> {
+            SearchResult<DocumentSearchHit> page = recordingSearch().apply(terms);
+            if (terms.size() > 1) {
+                expandedSearched.countDown();
+            }
+            return page;
+        });
+
+        assertThat(result.getTotalCount()).isEqualTo(1);
+        assertThat(outcomeCount("late")).isEqualTo(1);
+
+        expansion.complete(Set.of("wealth", "asset"));
+
+        assertThat(expandedSearched.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(searchedTermSets).containsExactly(Set.of("wealth"), Set.of("wealth", "asset"));
+    }
+
+    @Test
+    void searchReturnsLiteralResultWhenExpansionFails() {
+        hedgedDocumentSearch = newHedgedSearch();
+        when(searchQueryExpander.expandQueryWithSynonymsAsync("wealth"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")));
+
+        SearchResult<DocumentSearchHit> result = hedgedDocumentSearch.search("wealth", FIRST_PAGE, recordingSearch());
+
+        assertThat(result.getTotalCount()).isEqualTo(1);
+        assertThat(searchedTermSets).containsExactly(Set.of("wealth"));
+        assertThat(outcomeCount("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void searchFallsBackToLiteralQueryWhenExpansionIsRejected() {
+        hedgedDocumentSearch = newHedgedSearch();
+        when(searchQueryExpander.expandQueryWithSynonymsAsync("wealth"))
+                .thenReturn(CompletableFuture.failedFuture(new CompletionException(
+                        new RejectedExecutionException("all expansion slots busy"))));
+
+        SearchResult<DocumentSearchHit> result = hedgedDocumentSearch.search("wealth", FIRST_PAGE, recordingSearch());
+
+        assertThat(result.getTotalCount()).isEqualTo(1);
+        assertThat(searchedTermSets).containsExactly(Set.of("wealth"));
+        assertThat(outcomeCount("rejected")).isEqualTo(1);
+        assertThat(outcomeCount("failed")).isZero();
+    }
+
+    @Test
+    void searchContinuesCursorWithTheTermSetItWasIssuedForWithoutHedging() {
+        hedgedDocumentSearch = newHedgedSearch();
+
+        hedgedDocumentSearch.search("wealth", cursorFor(Set.of("wealth")), recordingSearch());
+        // an expansion the query may no longer produce still continues the result set it started
+        hedgedDocumentSearch.search("wealth", cursorFor(Set.of("wealth", "pension")), recordingSearch());
+
+        assertThat(searchedTermSets).containsExactly(Set.of("wealth"), Set.of("wealth", "pension"));
+        verifyNoInteractions(searchQueryExpander);
+    }
+
+    @Test
+    void searchRejectsCursorOfAnotherQuery() {
+        hedgedDocumentSearch = newHedgedSearch();
+        PaginationParams otherQueryCursor = cursorFor(Set.of("pension", "retirement"));
+
+        assertThatThrownBy(() -> hedgedDocumentSearch.search("wealth", otherQueryCursor, recordingSearch()))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor was issued for a different query");
+        assertThat(searchedTermSets).isEmpty();
+    }
+
+    private HedgedDocumentSearch newHedgedSearch() {
+        return new HedgedDocumentSearch(searchQueryExpander, meterRegistry, Duration.ofSeconds(5), 2);
+    }
+
+    private static PaginationParams cursorFor(Set<String> terms) {
+        String cursor = new DocumentSearchCursor(DocumentSearchSort.RELEVANCE, 0.5, OffsetDateTime.now(),
+                                                 UUID.randomUUID(), 30, true,
+                                                 DocumentSearchCursor.fingerprint(terms, OPTIONS), terms).encode();
+        return PaginationParams.of(20, 0, cursor);
+    }
+
+    private Function<Set<String>, SearchResult<DocumentSearchHit>> recordingSearch() {
+        return terms -> {
+            searchedTermSets.add(terms);
+            return SearchResult.<DocumentSearchHit>builder()
+                               .totalCount(terms.size())
+                               .build();
+        };
+    }
+
+    private double outcomeCount(String outcome) {
+        return meterRegistry.get(HedgedDocumentSearch.OUTCOME_METRIC)
+                            .tag("outcome", outcome)
+                            .counter()
+                            .count();
+    }
+}
@@ -0,0 +1,159 @@
+package com.wealthsearch.service.search;
+
+import com.wealthsearch.db.repository.ClientRepository;
+import com.wealthsearch.model.entity.Client;
+import com.wealthsearch.model.entity.search.ClientSearchCursor;
+import com.wealthsearch.model.entity.search.ClientSearchHit;
+import com.wealthsearch.model.entity.search.PaginationParams;
+import com.wealthsearch.model.entity.search.SearchResult;
+import com.wealthsearch.model.exception.BadRequestException;
+import com.wealthsearch.service.event.ClientCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.spy;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryClientSearchEngineTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    private InMemoryClientSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        List<Client> clients = List.of(client("neviswealth"), client("neviswealth"), client("neviswealth"),
+                                       client("neviswealthgroup"), client("neviswealthgroup"));
+
+        doAnswer(invocation -> {
+            Consumer<Client> action = invocation.getArgument(0);
+            clients.forEach(action);
+            return null;
+        }).when(clientRepository)
+          .forEachClient(any());
+
+        engine = new InMemoryClientSearchEngine(clientRepository);
+        engine.loadIndex();
+    }
+
+    @Test
+    void committedClientIsIndexedBeforeTheResultCacheMovesToANewVersion() {
+        InMemoryClientSearchEngine indexingEngine = spy(engine);
+        ClientSearchResultCache resultCache = spy(new ClientSearchResultCache(new SimpleMeterRegistry(), 10,
+                                                                              Duration.ofMinutes(1)));
+        ClientCreatedEvent event = new ClientCreatedEvent(client("neviswealthpartners"));
+
+        try (GenericApplicationContext context = new GenericApplicationContext()) {
+            AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+            // the cache is registered first, so the order has to come from the listeners themselves
+            context.registerBean(ClientSearchResultCache.class, () -> resultCache);
+            context.registerBean(InMemoryClientSearchEngine.class, () -> indexingEngine);
+            context.refresh();
+
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                context.publishEvent(event);
+                TransactionSynchronizationUtils.invokeAfterCompletion(
+                        TransactionSynchronizationManager.getSynchronizations(),
+                        TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        InOrder inOrder = inOrder(indexingEngine, resultCache);
+        inOrder.verify(indexingEngine)
+               .onClientCreated(event);
+        inOrder.verify(resultCache)
+               .onClientCreated(event);
+    }
+
+    @Test
+    void searchWithCursorWalksAllPagesInRankOrder() {
+        List<UUID> expectedOrder = ids(engine.search(List.of("neviswealth"), PaginationParams.of(10, 0)));
+
+        List<UUID> walkedOrder = new ArrayList<>();
+        SearchResult<ClientSearchHit> page = engine.search(List.of("neviswealth"), PaginationParams.of(2, 0));
+        walkedOrder.addAll(ids(page));
+
+        while (page.getNextCursor() != null) {
+            page = engine.search(List.of("neviswealth"), PaginationParams.of(2, 0, page.getNextCursor()));
+
+            assertThat(page.getTotalCount()).isEqualTo(5);
+            walkedOrder.addAll(ids(page));
+        }
+
+        assertThat(expectedOrder).hasSize(5);
+        assertThat(walkedOrder).containsExactlyElementsOf(expectedOrder);
+    }
+
+    @Test
+    void searchRejectsCursorOfAnotherQuery() {
+        String cursor = engine.search(List.of("neviswealth"), PaginationParams.of(2, 0))
+                              .getNextCursor();
+
+        assertThatThrownBy(() -> engine.search(List.of("nevis"), PaginationParams.of(2, 0, cursor)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor was issued for a different query");
+    }
+
+    @Test
+    void searchRejectsCursorWithNegativeTotalCount() {
+        String cursor = new ClientSearchCursor(0.5, UUID.randomUUID(), -1, "0000000000000000").encode();
+
+        assertThatThrownBy(() -> engine.search(List.of("neviswealth"), PaginationParams.of(2, 0, cursor)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void searchOmitsNextCursorOnLastPage() {
+        SearchResult<ClientSearchHit> page = engine.search(List.of("neviswealth"), PaginationParams.of(5, 0));
+
+        assertThat(page.getResults()).hasSize(5);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    private List<UUID> ids(SearchResult<ClientSearchHit> page) {
+        return page.getResults()
+                   .stream()
+                   .map(hit -> hit.getClient()
+                                  .getId())
+                   .toList();
+    }
+
+    private Client client(String domainName) {
+        return Client.builder()
+                     .id(UUID.randomUUID())
+                     .firstName("John")
+                     .lastName("Doe")
+                     .email("john.doe@" + domainName + ".com")
+                     .domainName(domainName)
+                     .countryOfResidence("US")
+                     .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.wealthsearch.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramUtilsTest {
+
+    @Test
+    void trigramSequencePadsEveryWord() {
+        assertThat(TrigramUtils.trigramSequence("ab")).hasSize(3);
+        assertThat(TrigramUtils.trigramSequence("two words")).hasSize(10);
+    }
+
+    @Test
+    void trigramSetIsSortedAndUnique() {
+        long[] set = TrigramUtils.trigramSet("aaaa");
+
+        // "  a", " aa", "aaa" (twice), "aa "
+        assertThat(set).hasSize(4)
+                       .isSorted();
+    }
+
+    @Test
+    void trigramSequenceIgnoresCaseAndPunctuation() {
+        assertThat(TrigramUtils.trigramSet("J.P. Morgan")).isEqualTo(TrigramUtils.trigramSet("j p morgan"));
+    }
+
+    @Test
+    void emptyValuesHaveZeroSimilarity() {
+        assertThat(TrigramUtils.similarity(TrigramUtils.trigramSet(""), TrigramUtils.trigramSet("word"))).isZero();
+        assertThat(TrigramUtils.wordSimilarity(TrigramUtils.trigramSet("word"),
+                                               TrigramUtils.trigramSequence(""))).isZero();
+    }
+
+    // expected values are what pg_trgm returns for the same arguments
+    @ParameterizedTest
+    @CsvSource({
+            "word, words, 0.5714286",
+            "neviswealth, neviswealth, 1.0",
+            "neviswealth, nevisis, 0.33333334",
+            "morganjp, morgan, 0.6",
+            "abc, xyz, 0.0"
+    })
+    void similarityMatchesPgTrgm(String first, String second, float expected) {
+        float similarity = TrigramUtils.similarity(TrigramUtils.trigramSet(first), TrigramUtils.trigramSet(second));
+
+        assertThat(similarity).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "word, two words, 0.8",
+            "word, words, 0.8",
+            "nevisis, neviswealth, 0.625",
+            "morgan, morganjp, 0.85714287",
+            "morgan, jpmorgan, 0.71428573",
+            "wealth, neviswealth, 0.71428573",
+            "xyz, neviswealth, 0.0"
+    })
+    void wordSimilarityMatchesPgTrgm(String query, String target, float expected) {
+        float similarity = TrigramUtils.wordSimilarity(TrigramUtils.trigramSet(query),
+                                                       TrigramUtils.trigramSequence(target));
+
+        assertThat(similarity).isEqualTo(expected);
+    }
+}
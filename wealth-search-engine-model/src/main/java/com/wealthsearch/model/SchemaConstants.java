@@ -21,6 +21,16 @@ public final class SchemaConstants {
         }
     }
 
+    public static final class ClientDomains {
+        public static final String TABLE = "client_domains";
+        public static final String COLUMN_DOMAIN_NAME = "domain_name";
+        public static final String COLUMN_CLIENT_COUNT = "client_count";
+
+        private ClientDomains() {
+            throw new UnsupportedOperationException("Utility class");
+        }
+    }
+
     public static final class Documents {
         public static final String TABLE = "documents";
         public static final String COLUMN_ID = "id";
@@ -47,6 +57,20 @@ public final class SchemaConstants {
         }
     }
 
+    public static final class QueryExpansions {
+        public static final String TABLE = "query_expansions";
+        public static final String COLUMN_NORMALIZED_QUERY = "normalized_query";
+        public static final String COLUMN_MODEL = "model";
+        public static final String COLUMN_PROMPT_VERSION = "prompt_version";
+        public static final String COLUMN_TERMS = "terms";
+        public static final String COLUMN_CREATED_AT = "created_at";
+        public static final String COLUMN_EXPIRES_AT = "expires_at";
+
+        private QueryExpansions() {
+            throw new UnsupportedOperationException("Utility class");
+        }
+    }
+
     public static final class ColumnDefinition {
         public static final String UUID = "UUID";
         public static final String TEXT = "TEXT";
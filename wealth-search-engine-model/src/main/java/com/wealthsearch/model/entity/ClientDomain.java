@@ -0,0 +1,39 @@
+package com.wealthsearch.model.entity;
+
+import static com.wealthsearch.model.SchemaConstants.ClientDomains;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Dictionary of distinct client domain names with the number of clients per domain. Fuzzy company search scores
+ * these rows instead of every client.
+ */
+@Entity
+@Table(name = ClientDomains.TABLE)
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode
+@ToString
+public class ClientDomain {
+
+    @Id
+    @Column(name = ClientDomains.COLUMN_DOMAIN_NAME, nullable = false, length = 128)
+    private String domainName;
+
+    @Column(name = ClientDomains.COLUMN_CLIENT_COUNT, nullable = false)
+    private Long clientCount;
+}
@@ -0,0 +1,71 @@
+package com.wealthsearch.model.entity;
+
+import static com.wealthsearch.model.SchemaConstants.ColumnDefinition;
+import static com.wealthsearch.model.SchemaConstants.QueryExpansions;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * LLM expansion of a normalized search query, shared by all nodes beneath their in-memory caches. The terms are kept
+ * as a JSON array.
+ */
+@Entity
+@Table(name = QueryExpansions.TABLE)
+@IdClass(QueryExpansion.Key.class)
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode
+@ToString
+public class QueryExpansion {
+
+    @Id
+    @Column(name = QueryExpansions.COLUMN_NORMALIZED_QUERY, nullable = false, columnDefinition = ColumnDefinition.TEXT)
+    private String normalizedQuery;
+
+    @Id
+    @Column(name = QueryExpansions.COLUMN_MODEL, nullable = false, length = 128)
+    private String model;
+
+    @Id
+    @Column(name = QueryExpansions.COLUMN_PROMPT_VERSION, nullable = false, length = 32)
+    private String promptVersion;
+
+    @Column(name = QueryExpansions.COLUMN_TERMS, nullable = false, columnDefinition = ColumnDefinition.TEXT)
+    private String terms;
+
+    @Column(name = QueryExpansions.COLUMN_CREATED_AT, nullable = false, columnDefinition = ColumnDefinition.TIMESTAMP_WITH_TIME_ZONE)
+    private OffsetDateTime createdAt;
+
+    @Column(name = QueryExpansions.COLUMN_EXPIRES_AT, nullable = false, columnDefinition = ColumnDefinition.TIMESTAMP_WITH_TIME_ZONE)
+    private OffsetDateTime expiresAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        private String normalizedQuery;
+
+        private String model;
+
+        private String promptVersion;
+    }
+}
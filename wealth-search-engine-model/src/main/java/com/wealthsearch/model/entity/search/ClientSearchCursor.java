@@ -0,0 +1,73 @@
+package com.wealthsearch.model.entity.search;
+
+import com.wealthsearch.model.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Position of the last client of a fuzzy search page. Search continues strictly after {@code (score, id)},
+ * ordered by score descending and id ascending. The total count of the first page is carried along so that
+ * following pages do not have to count the matches again. The fingerprint of the normalized query words binds
+ * that position and count to the query that produced them.
+ */
+public record ClientSearchCursor(double score, UUID id, long totalCount, String fingerprint) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ClientSearchCursor after(ClientSearchHit hit, long totalCount, List<String> words) {
+        return new ClientSearchCursor(hit.getScore(), hit.getClient()
+                                                         .getId(), totalCount, fingerprint(words));
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, Double.toString(score), id.toString(), Long.toString(totalCount),
+                                 fingerprint);
+
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor and checks that it was issued for the given query words.
+     */
+    public static ClientSearchCursor decode(String cursor, List<String> words) {
+        ClientSearchCursor decoded = decode(cursor);
+
+        if (!decoded.fingerprint()
+                    .equals(fingerprint(words))) {
+            throw new BadRequestException("Cursor was issued for a different query");
+        }
+        return decoded;
+    }
+
+    public static ClientSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder()
+                                          .decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Unexpected number of cursor parts");
+            }
+
+            long totalCount = Long.parseLong(parts[2]);
+
+            if (totalCount < 0) {
+                throw new IllegalArgumentException("Negative total count");
+            }
+
+            return new ClientSearchCursor(Double.parseDouble(parts[0]), UUID.fromString(parts[1]), totalCount,
+                                          parts[3]);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    // the words are matched and scored in the order given, so they are digested in that order
+    private static String fingerprint(List<String> words) {
+        return CursorFingerprint.of(String.join("\u0000", words));
+    }
+}
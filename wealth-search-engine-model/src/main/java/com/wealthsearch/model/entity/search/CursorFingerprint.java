@@ -0,0 +1,29 @@
+package com.wealthsearch.model.entity.search;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Short digest binding a search cursor to the query it was issued for. It tells queries apart, it is not a
+ * signature.
+ */
+final class CursorFingerprint {
+
+    private static final int FINGERPRINT_BYTES = 8;
+
+    private CursorFingerprint() {
+    }
+
+    static String of(String canonicalQuery) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                                         .digest(canonicalQuery.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of()
+                            .formatHex(digest, 0, FINGERPRINT_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.wealthsearch.model.entity.search;
+
+import com.wealthsearch.model.exception.BadRequestException;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Locale;
+
+@Schema(description = "How the total number of matching documents is computed")
+public enum DocumentSearchCountMode {
+
+    /**
+     * Every match is counted.
+     */
+    EXACT,
+
+    /**
+     * Matches are counted up to a configured cap; a larger total is reported as the cap and flagged as not exact.
+     */
+    CAPPED,
+
+    /**
+     * The total is the planner's row estimate for the search and is flagged as not exact.
+     */
+    ESTIMATE;
+
+    public static DocumentSearchCountMode fromValue(String value) {
+        try {
+            return valueOf(value.trim()
+                                .toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException(
+                    "Unsupported count mode '%s', expected one of: exact, capped, estimate".formatted(value));
+        }
+    }
+}
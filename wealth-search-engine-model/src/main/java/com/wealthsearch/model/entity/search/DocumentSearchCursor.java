@@ -0,0 +1,121 @@
+package com.wealthsearch.model.entity.search;
+
+import com.wealthsearch.model.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Position of the last document of a search page. Search continues strictly after {@code (rank, createdAt, id)}
+ * in descending order for {@link DocumentSearchSort#RELEVANCE} and after {@code (createdAt, id)} for
+ * {@link DocumentSearchSort#RECENT}; the sort is carried so a cursor cannot be replayed against the other order.
+ * The total count of the first page and whether it was exact are carried along so that following pages do not
+ * have to count the matches again. The term set the first page was searched with is carried as well, so following
+ * pages search exactly those terms even after the query's expansion changed; its fingerprint together with the
+ * filters binds the position and count to the query that produced them, see
+ * {@link #fingerprint(Set, DocumentSearchOptions)}.
+ */
+public record DocumentSearchCursor(DocumentSearchSort sort, double rank, OffsetDateTime createdAt, UUID id,
+                                   long totalCount, boolean totalCountExact, String fingerprint,
+                                   Set<String> searchTerms) {
+
+    private static final String SEPARATOR = "|";
+
+    private static final String TERM_SEPARATOR = ",";
+
+    public String encode() {
+        String createdAtValue = createdAt.toInstant()
+                                         .toString();
+        String raw = String.join(SEPARATOR, sort.name(), Double.toString(rank), createdAtValue, id.toString(),
+                                 Long.toString(totalCount), Boolean.toString(totalCountExact), fingerprint,
+                                 encodeTerms(searchTerms));
+
+        return base64(raw);
+    }
+
+    public static DocumentSearchCursor decode(String cursor) {
+        try {
+            String[] parts = fromBase64(cursor).split("\\|", -1);
+
+            if (parts.length != 8) {
+                throw new IllegalArgumentException("Unexpected number of cursor parts");
+            }
+
+            OffsetDateTime createdAt = Instant.parse(parts[2])
+                                              .atOffset(ZoneOffset.UTC);
+            long totalCount = Long.parseLong(parts[4]);
+
+            if (totalCount < 0) {
+                throw new IllegalArgumentException("Negative total count");
+            }
+
+            return new DocumentSearchCursor(DocumentSearchSort.valueOf(parts[0]), Double.parseDouble(parts[1]),
+                                            createdAt, UUID.fromString(parts[3]), totalCount,
+                                            Boolean.parseBoolean(parts[5]), parts[6], decodeTerms(parts[7]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Digest of everything that decides which documents match and how they are counted: the sorted search terms,
+     * the sort, the client filter, the creation window and the count mode. The view only shapes the returned hits
+     * and is left out, so a client may switch between snippets and full documents while paging.
+     */
+    public static String fingerprint(Set<String> searchTerms, DocumentSearchOptions options) {
+        String canonical = String.join("\n", searchTerms.stream()
+                                                        .sorted()
+                                                        .collect(Collectors.joining("\u0000")),
+                                       options.getSort()
+                                              .name(),
+                                       options.getClientIds()
+                                              .stream()
+                                              .map(UUID::toString)
+                                              .sorted()
+                                              .collect(Collectors.joining(",")),
+                                       Objects.toString(toInstant(options.getCreatedFrom()), ""),
+                                       Objects.toString(toInstant(options.getCreatedTo()), ""),
+                                       options.getCountMode()
+                                              .name());
+        return CursorFingerprint.of(canonical);
+    }
+
+    // terms may contain any character, so each one is encoded on its own
+    private static String encodeTerms(Set<String> searchTerms) {
+        return searchTerms.stream()
+                          .sorted()
+                          .map(DocumentSearchCursor::base64)
+                          .collect(Collectors.joining(TERM_SEPARATOR));
+    }
+
+    private static Set<String> decodeTerms(String encodedTerms) {
+        if (encodedTerms.isEmpty()) {
+            throw new IllegalArgumentException("Cursor carries no search terms");
+        }
+        return Arrays.stream(encodedTerms.split(TERM_SEPARATOR, -1))
+                     .map(DocumentSearchCursor::fromBase64)
+                     .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static String base64(String value) {
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromBase64(String value) {
+        return new String(Base64.getUrlDecoder()
+                                .decode(value), StandardCharsets.UTF_8);
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value == null ? null : value.toInstant();
+    }
+}
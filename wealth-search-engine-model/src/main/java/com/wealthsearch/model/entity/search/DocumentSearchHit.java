@@ -15,4 +15,12 @@ public class DocumentSearchHit {
 
     @Schema(description = "Score of the match", example = "0.85")
     double score;
+
+    @Schema(description = "Highlighted fragment of the content, present in the snippet view",
+            example = "<b>Wealth</b> management plan for high-net-worth individuals")
+    String snippet;
+
+    public DocumentSearchHit(Document document, double score) {
+        this(document, score, null);
+    }
 }
@@ -0,0 +1,48 @@
+package com.wealthsearch.model.entity.search;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Schema(description = "Options shaping a document search")
+public class DocumentSearchOptions {
+
+    @Schema(description = "Shape of returned hits", example = "SNIPPET")
+    @Builder.Default
+    DocumentSearchView view = DocumentSearchView.SNIPPET;
+
+    @Schema(description = "Clients whose documents are searched, all clients when empty")
+    @Builder.Default
+    Set<UUID> clientIds = Set.of();
+
+    @Schema(description = "Only documents created at or after this instant", example = "2025-07-01T00:00:00Z")
+    OffsetDateTime createdFrom;
+
+    @Schema(description = "Only documents created before this instant", example = "2025-10-01T00:00:00Z")
+    OffsetDateTime createdTo;
+
+    @Schema(description = "Order of returned hits", example = "RELEVANCE")
+    @Builder.Default
+    DocumentSearchSort sort = DocumentSearchSort.RELEVANCE;
+
+    @Schema(description = "How the total count is computed", example = "EXACT")
+    @Builder.Default
+    DocumentSearchCountMode countMode = DocumentSearchCountMode.EXACT;
+
+    public boolean hasClientFilter() {
+        return !clientIds.isEmpty();
+    }
+
+    public static DocumentSearchOptions defaults() {
+        return DocumentSearchOptions.builder()
+                                    .build();
+    }
+}
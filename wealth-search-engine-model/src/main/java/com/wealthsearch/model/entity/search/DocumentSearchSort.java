@@ -0,0 +1,40 @@
+package com.wealthsearch.model.entity.search;
+
+import com.wealthsearch.model.exception.BadRequestException;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Locale;
+
+@Schema(description = "Order of document search hits")
+public enum DocumentSearchSort {
+
+    /**
+     * Best matches first, ties broken by the newest document.
+     */
+    RELEVANCE(DocumentSearchCountMode.EXACT),
+
+    /**
+     * Newest matching documents first, regardless of their rank. The recency scan stops once the page is filled,
+     * so an exact total would be the only part of the first page visiting every match; the count is capped unless
+     * an exact one is asked for.
+     */
+    RECENT(DocumentSearchCountMode.CAPPED);
+
+    private final DocumentSearchCountMode defaultCountMode;
+
+    DocumentSearchSort(DocumentSearchCountMode defaultCountMode) {
+        this.defaultCountMode = defaultCountMode;
+    }
+
+    public DocumentSearchCountMode defaultCountMode() {
+        return defaultCountMode;
+    }
+
+    public static DocumentSearchSort fromValue(String value) {
+        try {
+            return valueOf(value.trim()
+                                .toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Unsupported sort '%s', expected one of: relevance, recent".formatted(value));
+        }
+    }
+}
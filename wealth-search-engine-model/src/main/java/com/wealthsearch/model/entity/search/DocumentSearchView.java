@@ -0,0 +1,28 @@
+package com.wealthsearch.model.entity.search;
+
+import com.wealthsearch.model.exception.BadRequestException;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Locale;
+
+@Schema(description = "Shape of document search hits")
+public enum DocumentSearchView {
+
+    /**
+     * Hits carry document metadata and a highlighted fragment of the content instead of the content itself.
+     */
+    SNIPPET,
+
+    /**
+     * Hits carry the complete document including its content.
+     */
+    FULL;
+
+    public static DocumentSearchView fromValue(String value) {
+        try {
+            return valueOf(value.trim()
+                                .toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Unsupported view '%s', expected one of: snippet, full".formatted(value));
+        }
+    }
+}
@@ -22,11 +22,22 @@ public class PaginationParams {
     @Min(0)
     int offset;
 
+    @Schema(description = "Opaque position returned by the previous page, replaces offset when present")
+    String cursor;
+
     public static PaginationParams of(int limit, int offset) {
-        return new PaginationParams(limit, offset);
+        return new PaginationParams(limit, offset, null);
+    }
+
+    public static PaginationParams of(int limit, int offset, String cursor) {
+        return new PaginationParams(limit, offset, cursor);
     }
 
     public static PaginationParams defaultPage() {
-        return new PaginationParams(20, 0);
+        return new PaginationParams(20, 0, null);
+    }
+
+    public boolean hasCursor() {
+        return cursor != null && !cursor.isBlank();
     }
 }
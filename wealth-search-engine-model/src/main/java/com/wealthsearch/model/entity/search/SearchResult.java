@@ -20,4 +20,11 @@ public class SearchResult<T> {
     @Schema(description = "Total number of matching results", example = "42")
     @Builder.Default
     long totalCount = 0;
+
+    @Schema(description = "Whether totalCount is exact; otherwise it is a lower bound or an estimate", example = "true")
+    @Builder.Default
+    boolean totalCountExact = true;
+
+    @Schema(description = "Cursor of the next page, absent when there are no further results")
+    String nextCursor;
 }
@@ -0,0 +1,11 @@
+package com.wealthsearch.model.exception;
+
+/**
+ * The call was rejected without reaching Ollama because the concurrency limit of its operation was reached.
+ */
+public class OllamaOverloadedException extends OllamaClientException {
+
+    public OllamaOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -2,7 +2,11 @@ package com.wealthsearch.web.controller;
 
 import com.wealthsearch.api.SearchService;
 import com.wealthsearch.model.entity.search.ClientSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchCountMode;
 import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
+import com.wealthsearch.model.entity.search.DocumentSearchSort;
+import com.wealthsearch.model.entity.search.DocumentSearchView;
 import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,7 +17,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -40,8 +48,12 @@ public class SearchController {
             responses = {
                 @ApiResponse(responseCode = "200",
                         description = "Search results with total count in X-Total-Count header",
-                        headers = @Header(name = "X-Total-Count", description = "Total number of matching clients",
-                                schema = @Schema(type = "integer")))
+                        headers = {
+                            @Header(name = "X-Total-Count", description = "Total number of matching clients",
+                                    schema = @Schema(type = "integer")),
+                            @Header(name = "X-Next-Cursor", description = "Cursor of the next page, absent on the last page",
+                                    schema = @Schema(type = "string"))
+                        })
             })
     public ResponseEntity<List<ClientSearchHit>> search(
             @Parameter(description = "Search query", required = true,
@@ -49,13 +61,18 @@ public class SearchController {
             @Parameter(description = "Maximum number of results to return",
                     example = "20") @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
             @Parameter(description = "Number of results to skip", example = "0") @RequestParam(value = "offset",
-                    defaultValue = "0") @Min(0) int offset) {
+                    defaultValue = "0") @Min(0) int offset,
+            @Parameter(description = "Cursor returned in X-Next-Cursor by the previous page")
+            @RequestParam(value = "cursor", required = false) String cursor) {
 
-        PaginationParams paginationParams = PaginationParams.of(limit, offset);
+        PaginationParams paginationParams = PaginationParams.of(limit, offset, cursor);
         SearchResult<ClientSearchHit> searchResult = searchService.searchClientsPerCompanyName(query, paginationParams);
 
         HttpHeaders headers = new HttpHeaders();
         headers.add("X-Total-Count", String.valueOf(searchResult.getTotalCount()));
+        if (searchResult.getNextCursor() != null) {
+            headers.add("X-Next-Cursor", searchResult.getNextCursor());
+        }
 
         return ResponseEntity.ok()
                              .headers(headers)
@@ -68,8 +85,15 @@ public class SearchController {
             responses = {
                 @ApiResponse(responseCode = "200",
                         description = "Search results with total count in X-Total-Count header",
-                        headers = @Header(name = "X-Total-Count", description = "Total number of matching documents",
-                                schema = @Schema(type = "integer")))
+                        headers = {
+                            @Header(name = "X-Total-Count", description = "Total number of matching documents",
+                                    schema = @Schema(type = "integer")),
+                            @Header(name = "X-Total-Count-Exact",
+                                    description = "false when X-Total-Count is capped or estimated",
+                                    schema = @Schema(type = "boolean")),
+                            @Header(name = "X-Next-Cursor", description = "Cursor of the next page, absent on the last page",
+                                    schema = @Schema(type = "string"))
+                        })
             })
     public ResponseEntity<List<DocumentSearchHit>> searchDocuments(
             @Parameter(description = "Search query", required = true,
@@ -77,15 +101,56 @@ public class SearchController {
             @Parameter(description = "Maximum number of results to return",
                     example = "20") @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
             @Parameter(description = "Number of results to skip", example = "0") @RequestParam(value = "offset",
-                    defaultValue = "0") @Min(0) int offset) {
+                    defaultValue = "0") @Min(0) int offset,
+            @Parameter(description = "Cursor returned in X-Next-Cursor by the previous page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Shape of hits: snippet returns a highlighted fragment instead of the content, "
+                    + "full returns the complete document", example = "snippet",
+                    schema = @Schema(allowableValues = {"snippet", "full"}))
+            @RequestParam(value = "view", defaultValue = "snippet") String view,
+            @Parameter(description = "Restricts the search to documents of these clients, repeat for several clients")
+            @RequestParam(value = "clientId", required = false) List<UUID> clientIds,
+            @Parameter(description = "Only documents created at or after this instant (ISO-8601)",
+                    example = "2025-07-01T00:00:00Z")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            OffsetDateTime from,
+            @Parameter(description = "Only documents created before this instant (ISO-8601)",
+                    example = "2025-10-01T00:00:00Z")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            OffsetDateTime to,
+            @Parameter(description = "Order of hits: relevance ranks best matches first, recent returns the newest "
+                    + "matching documents first", example = "relevance",
+                    schema = @Schema(allowableValues = {"relevance", "recent"}))
+            @RequestParam(value = "sort", defaultValue = "relevance") String sort,
+            @Parameter(description = "How X-Total-Count is computed: exact counts every match, capped stops at the "
+                    + "configured cap, estimate uses the query planner's row estimate; exact for relevance and "
+                    + "capped for recent when omitted", example = "exact",
+                    schema = @Schema(allowableValues = {"exact", "capped", "estimate"}))
+            @RequestParam(value = "countMode", required = false) String countMode) {
 
-        PaginationParams paginationParams = PaginationParams.of(limit, offset);
+        PaginationParams paginationParams = PaginationParams.of(limit, offset, cursor);
+        DocumentSearchSort searchSort = DocumentSearchSort.fromValue(sort);
+        DocumentSearchOptions options = DocumentSearchOptions.builder()
+                                                             .view(DocumentSearchView.fromValue(view))
+                                                             .clientIds(clientIds == null ? Set.of()
+                                                                                          : Set.copyOf(clientIds))
+                                                             .createdFrom(from)
+                                                             .createdTo(to)
+                                                             .sort(searchSort)
+                                                             .countMode(countMode == null
+                                                                     ? searchSort.defaultCountMode()
+                                                                     : DocumentSearchCountMode.fromValue(countMode))
+                                                             .build();
 
         SearchResult<DocumentSearchHit> searchResult =
-                searchService.searchDocumentsBySimilarTerms(query, paginationParams);
+                searchService.searchDocumentsBySimilarTerms(query, options, paginationParams);
 
         HttpHeaders headers = new HttpHeaders();
         headers.add("X-Total-Count", String.valueOf(searchResult.getTotalCount()));
+        headers.add("X-Total-Count-Exact", String.valueOf(searchResult.isTotalCountExact()));
+        if (searchResult.getNextCursor() != null) {
+            headers.add("X-Next-Cursor", searchResult.getNextCursor());
+        }
 
         return ResponseEntity.ok()
                              .headers(headers)
@@ -4,7 +4,11 @@ import com.wealthsearch.api.SearchService;
 import com.wealthsearch.model.entity.Client;
 import com.wealthsearch.model.entity.Document;
 import com.wealthsearch.model.entity.search.ClientSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchCountMode;
 import com.wealthsearch.model.entity.search.DocumentSearchHit;
+import com.wealthsearch.model.entity.search.DocumentSearchOptions;
+import com.wealthsearch.model.entity.search.DocumentSearchSort;
+import com.wealthsearch.model.entity.search.DocumentSearchView;
 import com.wealthsearch.model.entity.search.PaginationParams;
 import com.wealthsearch.model.entity.search.SearchResult;
 import com.wealthsearch.model.exception.BadRequestException;
@@ -17,7 +21,9 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -158,6 +164,28 @@ class SearchControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    void searchClientsPassesCursorAndReturnsNextCursor() throws Exception {
+        SearchResult<ClientSearchHit> result = SearchResult.<ClientSearchHit>builder()
+                .results(List.of(new ClientSearchHit(createTestClient(), 0.95)))
+                .totalCount(10L)
+                .nextCursor("next-page")
+                .build();
+
+        when(searchService.searchClientsPerCompanyName(eq("neviswealth"), eq(PaginationParams.of(1, 0, "this-page"))))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/search/clients")
+                        .param("q", "neviswealth")
+                        .param("limit", "1")
+                        .param("cursor", "this-page")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "10"))
+                .andExpect(header().string("X-Next-Cursor", "next-page"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     @Test
     void searchDocumentsWithValidQuery() throws Exception {
         Document document = createTestDocument();
@@ -166,7 +194,8 @@ class SearchControllerTest {
                 .totalCount(1L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("wealth management"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth management"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -174,6 +203,7 @@ class SearchControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(header().string("X-Total-Count-Exact", "true"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].document.title").value("Test Document"))
                 .andExpect(jsonPath("$[0].score").value(0.87));
@@ -186,7 +216,8 @@ class SearchControllerTest {
                 .totalCount(15L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -199,6 +230,220 @@ class SearchControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void searchDocumentsPassesCursorAndReturnsNextCursor() throws Exception {
+        SearchResult<DocumentSearchHit> result = SearchResult.<DocumentSearchHit>builder()
+                .results(List.of(new DocumentSearchHit(createTestDocument(), 0.87)))
+                .totalCount(15L)
+                .nextCursor("next-page")
+                .build();
+
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), any(DocumentSearchOptions.class),
+                                                          eq(PaginationParams.of(10, 0, "this-page"))))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("limit", "10")
+                        .param("cursor", "this-page")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "15"))
+                .andExpect(header().string("X-Next-Cursor", "next-page"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void searchDocumentsOmitsNextCursorOnLastPage() throws Exception {
+        SearchResult<DocumentSearchHit> result = SearchResult.<DocumentSearchHit>builder()
+                .results(List.of(new DocumentSearchHit(createTestDocument(), 0.87)))
+                .totalCount(1L)
+                .build();
+
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void searchDocumentsDefaultsToSnippetView() throws Exception {
+        DocumentSearchOptions snippetOptions = DocumentSearchOptions.builder()
+                                                                    .view(DocumentSearchView.SNIPPET)
+                                                                    .build();
+        DocumentSearchHit hit = new DocumentSearchHit(createTestDocument(), 0.87, "<b>wealth</b> strategies");
+        SearchResult<DocumentSearchHit> result = SearchResult.<DocumentSearchHit>builder()
+                .results(List.of(hit))
+                .totalCount(1L)
+                .build();
+
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), eq(snippetOptions), any(PaginationParams.class)))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].snippet").value("<b>wealth</b> strategies"));
+    }
+
+    @Test
+    void searchDocumentsPassesFullView() throws Exception {
+        DocumentSearchOptions fullOptions = DocumentSearchOptions.builder()
+                                                                 .view(DocumentSearchView.FULL)
+                                                                 .build();
+        SearchResult<DocumentSearchHit> result = SearchResult.<DocumentSearchHit>builder()
+                .results(List.of(new DocumentSearchHit(createTestDocument(), 0.87)))
+                .totalCount(1L)
+                .build();
+
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), eq(fullOptions), any(PaginationParams.class)))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("view", "full")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].document.content").value("This is a test document about wealth management"));
+    }
+
+    @Test
+    void searchDocumentsPassesClientIds() throws Exception {
+        UUID firstClientId = UUID.randomUUID();
+        UUID secondClientId = UUID.randomUUID();
+        DocumentSearchOptions scopedOptions = DocumentSearchOptions.builder()
+                                                                   .clientIds(Set.of(firstClientId, secondClientId))
+                                                                   .build();
+        SearchResult<DocumentSearchHit> result = SearchResult.<DocumentSearchHit>builder()
+                .results(List.of(new DocumentSearchHit(createTestDocument(), 0.87)))
+                .totalCount(1L)
+                .build();
+
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), eq(scopedOptions), any(PaginationParams.class)))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("clientId", firstClientId.toString(), secondClientId.toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"));
+    }
+
+    @Test
+    void searchDocumentsPassesCreatedAtRangeAndSort() throws Exception {
+        DocumentSearchOptions options = DocumentSearchOptions.builder()
+                                                             .createdFrom(OffsetDateTime.parse("2025-07-01T00:00:00Z"))
+                                                             .createdTo(OffsetDateTime.parse("2025-10-01T00:00:00Z"))
+                                                             .sort(DocumentSearchSort.RECENT)
+                                                             .countMode(DocumentSearchCountMode.CAPPED)
+                                                             .build();
+        SearchResult<DocumentSearchHit> result = SearchResult.<DocumentSearchHit>builder()
+                .results(List.of(new DocumentSearchHit(createTestDocument(), 0.87)))
+                .totalCount(1L)
+                .build();
+
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), eq(options), any(PaginationParams.class)))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("from", "2025-07-01T00:00:00Z")
+                        .param("to", "2025-10-01T00:00:00Z")
+                        .param("sort", "recent")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"));
+    }
+
+    @Test
+    void searchDocumentsPassesCountModeAndFlagsInexactTotal() throws Exception {
+        DocumentSearchOptions options = DocumentSearchOptions.builder()
+                                                             .countMode(DocumentSearchCountMode.CAPPED)
+                                                             .build();
+        SearchResult<DocumentSearchHit> result = SearchResult.<DocumentSearchHit>builder()
+                .results(List.of(new DocumentSearchHit(createTestDocument(), 0.87)))
+                .totalCount(1000L)
+                .totalCountExact(false)
+                .build();
+
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), eq(options), any(PaginationParams.class)))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("countMode", "capped")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1000"))
+                .andExpect(header().string("X-Total-Count-Exact", "false"));
+    }
+
+    @Test
+    void searchDocumentsKeepsExplicitExactCountForRecentSort() throws Exception {
+        DocumentSearchOptions options = DocumentSearchOptions.builder()
+                                                             .sort(DocumentSearchSort.RECENT)
+                                                             .countMode(DocumentSearchCountMode.EXACT)
+                                                             .build();
+        SearchResult<DocumentSearchHit> result = SearchResult.<DocumentSearchHit>builder()
+                .results(List.of(new DocumentSearchHit(createTestDocument(), 0.87)))
+                .totalCount(1L)
+                .build();
+
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), eq(options), any(PaginationParams.class)))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("sort", "recent")
+                        .param("countMode", "exact")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count-Exact", "true"));
+    }
+
+    @Test
+    void searchDocumentsRejectsUnknownCountMode() throws Exception {
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("countMode", "approximate")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchDocumentsRejectsUnknownSort() throws Exception {
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("sort", "oldest")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchDocumentsRejectsMalformedClientId() throws Exception {
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("clientId", "not-a-uuid")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchDocumentsRejectsUnknownView() throws Exception {
+        mockMvc.perform(get("/search/documents")
+                        .param("q", "wealth")
+                        .param("view", "raw")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void searchDocumentsRejectsMissingQuery() throws Exception {
         mockMvc.perform(get("/search/documents")
@@ -208,7 +453,8 @@ class SearchControllerTest {
 
     @Test
     void searchDocumentsRejectsBlankQuery() throws Exception {
-        when(searchService.searchDocumentsBySimilarTerms(eq(""), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq(""), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenThrow(new BadRequestException("Query should not be empty"));
 
         mockMvc.perform(get("/search/documents")
@@ -242,7 +488,8 @@ class SearchControllerTest {
                 .totalCount(0L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("nonexistent"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("nonexistent"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -260,7 +507,8 @@ class SearchControllerTest {
                 .totalCount(1L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("J.P. Morgan"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("J.P. Morgan"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -294,7 +542,8 @@ class SearchControllerTest {
                 .totalCount(1L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -643,7 +892,8 @@ class SearchControllerTest {
 
     @Test
     void searchDocumentsWithWhitespaceOnlyQuery() throws Exception {
-        when(searchService.searchDocumentsBySimilarTerms(eq("   "), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("   "), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenThrow(new BadRequestException("Query should not be empty"));
 
         mockMvc.perform(get("/search/documents")
@@ -660,7 +910,8 @@ class SearchControllerTest {
                 .totalCount(0L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq(longQuery), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq(longQuery), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -678,7 +929,8 @@ class SearchControllerTest {
                 .totalCount(0L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq(unicodeQuery), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq(unicodeQuery), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -695,7 +947,8 @@ class SearchControllerTest {
                 .totalCount(0L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq(emojiQuery), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq(emojiQuery), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -722,7 +975,8 @@ class SearchControllerTest {
                 .totalCount(2L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -742,7 +996,8 @@ class SearchControllerTest {
                 .totalCount(3L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -761,7 +1016,8 @@ class SearchControllerTest {
                 .totalCount(0L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -823,7 +1079,8 @@ class SearchControllerTest {
                 .totalCount(0L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -840,7 +1097,8 @@ class SearchControllerTest {
                 .totalCount(1L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -858,7 +1116,8 @@ class SearchControllerTest {
                 .totalCount(1L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -881,7 +1140,8 @@ class SearchControllerTest {
                 .totalCount(1000L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -900,7 +1160,8 @@ class SearchControllerTest {
                 .totalCount(1L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("WEALTH MANAGEMENT"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("WEALTH MANAGEMENT"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -917,7 +1178,8 @@ class SearchControllerTest {
                 .totalCount(0L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq(queryWithNewlines), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq(queryWithNewlines), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -934,7 +1196,8 @@ class SearchControllerTest {
                 .totalCount(0L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq(sqlInjection), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq(sqlInjection), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -951,7 +1214,8 @@ class SearchControllerTest {
                 .totalCount(1L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("wealth & finance"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("wealth & finance"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")
@@ -967,7 +1231,8 @@ class SearchControllerTest {
                 .totalCount(0L)
                 .build();
 
-        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(PaginationParams.class)))
+        when(searchService.searchDocumentsBySimilarTerms(eq("test"), any(DocumentSearchOptions.class),
+                                                          any(PaginationParams.class)))
                 .thenReturn(result);
 
         mockMvc.perform(get("/search/documents")